@@ -0,0 +1,332 @@
+package DSA;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+// Correctness checks for the DSA structures, run against java.util as the reference: random
+// operations on both, compared after every step. The companion of Menu.DSAPerformanceTest, which only
+// times them; kept beside the structures it checks. Exits with status 1 if any check fails.
+//
+// Usage: java DSA.DSACorrectnessTest [seed]
+public class DSACorrectnessTest {
+
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        System.out.println("\n=== 🧪 DSA CORRECTNESS TESTS (seed " + seed + ") ===");
+
+        test("hashmap: random put/get/remove, resize", () -> testHashMap(new Random(seed)));
+        test("hashset: grow, shrink and re-grow", () -> testHashSet(new Random(seed)));
+        test("longHashMap: backward-shift removal, resize and shrink", () -> testLongHashMap(new Random(seed)));
+        test("longIntMap / longDoubleMap: same, with primitive values", () -> testPrimitiveMaps(new Random(seed)));
+        test("myTreeMap: AVL prefix sums, ranges, floor and ceiling", () -> testTreeMap(new Random(seed)));
+        test("indexedpriorityqueue: decreaseKey, increaseKey, remove, poll", () -> testIndexedHeap(new Random(seed)));
+        test("arrayList / intList: keyed sorts are sorted and stable", () -> testKeyedSorts(new Random(seed)));
+
+        System.out.println(failed == 0 ? "✅ All checks passed." : "❌ " + failed + " check(s) failed.");
+        if (failed > 0) System.exit(1);
+    }
+
+    private static void test(String name, Runnable check) {
+        try {
+            check.run();
+            System.out.println("✅ " + name);
+        } catch (RuntimeException e) {
+            failed++;
+            System.out.println("❌ " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) throw new IllegalStateException(what);
+    }
+
+    // A small key space keeps the table crossing its resize threshold in both directions
+    private static void testHashMap(Random random) {
+        hashmap<Integer, Integer> ours = new hashmap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            int key = random.nextInt(op < 100_000 ? 50_000 : 64) * (random.nextBoolean() ? 1 : 65_536);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    ours.put(key, op);
+                    expected.put(key, op);
+                }
+                case 1 -> check(equal(ours.remove(key), expected.remove(key)), "remove(" + key + ") at op " + op);
+                default -> check(equal(ours.get(key), expected.get(key)), "get(" + key + ") at op " + op);
+            }
+            check(ours.size() == expected.size(), "size " + ours.size() + " != " + expected.size() + " at op " + op);
+        }
+
+        int seen = 0;
+        for (hashmap.Node<Integer, Integer> n : ours) {
+            check(equal(n.value, expected.get(n.key)), "iterated " + n.key + " => " + n.value);
+            seen++;
+        }
+        check(seen == expected.size(), "iterated " + seen + " entries, expected " + expected.size());
+    }
+
+    private static void testHashSet(Random random) {
+        hashset ours = new hashset();
+        HashSet<String> expected = new HashSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            String value = "Category" + random.nextInt(80_000);
+            check(ours.add(value) == expected.add(value), "add(" + value + ")");
+        }
+        // Down to a handful, well past the point where the table halves
+        for (String value : expected.toArray(new String[0])) {
+            if (expected.size() <= 10) break;
+            check(ours.remove(value) && expected.remove(value), "remove(" + value + ")");
+            check(!ours.contains(value), "contains(" + value + ") after remove");
+        }
+        check(ours.size() == expected.size(), "size " + ours.size() + " != " + expected.size());
+        for (String value : expected) check(ours.contains(value), "lost " + value + " while shrinking");
+
+        for (int i = 0; i < 1000; i++) ours.add("Again" + i);
+        check(ours.size() == expected.size() + 1000, "size after re-growing: " + ours.size());
+
+        int seen = 0;
+        for (String value : ours) {
+            check(expected.contains(value) || value.startsWith("Again"), "iterated unknown " + value);
+            seen++;
+        }
+        check(seen == ours.size(), "iterated " + seen + " values, size is " + ours.size());
+    }
+
+    private static void testLongHashMap(Random random) {
+        longHashMap<Long> ours = new longHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+
+        // Few keys and many removals: long probe runs form and are shifted back again and again
+        for (int op = 0; op < 300_000; op++) {
+            long key = longKey(random, op < 150_000 ? 40 : 5_000);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> check(equal(ours.put(key, (long) op), expected.put(key, (long) op)), "put(" + key + ") at op " + op);
+                case 2 -> check(equal(ours.remove(key), expected.remove(key)), "remove(" + key + ") at op " + op);
+                default -> check(equal(ours.get(key), expected.get(key)), "get(" + key + ") at op " + op);
+            }
+            check(ours.size() == expected.size(), "size " + ours.size() + " != " + expected.size() + " at op " + op);
+        }
+        for (Map.Entry<Long, Long> e : expected.entrySet()) {
+            check(equal(ours.get(e.getKey()), e.getValue()), "get(" + e.getKey() + ") at the end");
+        }
+
+        // Grow to 100k, shrink back to a few, and check nothing was lost on the way
+        longHashMap<Long> big = new longHashMap<>();
+        for (long k = 0; k < 100_000; k++) big.put(k * 31, k);
+        for (long k = 0; k < 100_000; k++) {
+            if (k % 10_000 != 0) check(big.remove(k * 31) == k, "remove(" + k * 31 + ")");
+        }
+        check(big.size() == 10, "size after shrinking: " + big.size());
+        for (long k = 0; k < 100_000; k += 10_000) check(equal(big.get(k * 31), k), "lost " + k * 31 + " while shrinking");
+
+        check(longHashMap.numericKey("1400007253216") == 1400007253216L, "numericKey of an account id");
+        check(longHashMap.numericKey("007") == longHashMap.NOT_NUMERIC, "numericKey of a leading zero");
+        check(longHashMap.numericKey("12a") == longHashMap.NOT_NUMERIC, "numericKey of a non-digit");
+        check(longHashMap.numericKey("1234567890123456789") == longHashMap.NOT_NUMERIC, "numericKey of 19 digits");
+    }
+
+    private static void testPrimitiveMaps(Random random) {
+        longIntMap ints = new longIntMap();
+        longDoubleMap doubles = new longDoubleMap();
+        Map<Long, Integer> expectedInts = new HashMap<>();
+        Map<Long, Double> expectedDoubles = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = longKey(random, op < 100_000 ? 30 : 3_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    ints.put(key, op);
+                    expectedInts.put(key, op);
+                }
+                case 1 -> {
+                    doubles.add(key, op % 100);
+                    expectedDoubles.merge(key, (double) (op % 100), Double::sum);
+                }
+                case 2 -> {
+                    check(ints.remove(key) == (expectedInts.remove(key) != null), "longIntMap.remove(" + key + ")");
+                    check(doubles.remove(key) == (expectedDoubles.remove(key) != null), "longDoubleMap.remove(" + key + ")");
+                }
+                default -> {
+                    check(ints.getOrDefault(key, -1) == expectedInts.getOrDefault(key, -1), "longIntMap.get(" + key + ")");
+                    check(doubles.getOrDefault(key, -1) == expectedDoubles.getOrDefault(key, -1.0), "longDoubleMap.get(" + key + ")");
+                }
+            }
+            check(ints.size() == expectedInts.size() && doubles.size() == expectedDoubles.size(), "size at op " + op);
+        }
+
+        int[] seen = {0};
+        doubles.forEach((key, total) -> {
+            check(total == expectedDoubles.get(key), "forEach " + key + " => " + total);
+            seen[0]++;
+        });
+        check(seen[0] == expectedDoubles.size(), "forEach saw " + seen[0] + " entries");
+    }
+
+    // Mostly small keys, with 0 (kept outside the table) and the extremes mixed in
+    private static long longKey(Random random, int range) {
+        return switch (random.nextInt(20)) {
+            case 0 -> 0;
+            case 1 -> Long.MIN_VALUE;
+            case 2 -> Long.MAX_VALUE;
+            case 3 -> -random.nextInt(range);
+            default -> random.nextInt(range);
+        };
+    }
+
+    // Whole-number values, so the sums are exact and compared with ==
+    private static void testTreeMap(Random random) {
+        myTreeMap<Integer> ours = new myTreeMap<>();
+        TreeMap<Integer, Double> expected = new TreeMap<>();
+
+        for (int op = 0; op < 20_000; op++) {
+            int key = random.nextInt(5_000);
+            double value = random.nextInt(1_000);
+            ours.put(key, value);
+            expected.merge(key, value, Double::sum);
+
+            if (op % 50 == 0) {
+                int probe = random.nextInt(5_200) - 100;
+                check(ours.prefixSum(probe) == sum(expected, Integer.MIN_VALUE, probe), "prefixSum(" + probe + ") at op " + op);
+
+                int from = random.nextInt(5_000), to = from + random.nextInt(500);
+                check(ours.sumRange(from, to) == sum(expected, from, to), "sumRange(" + from + ", " + to + ") at op " + op);
+                check(ours.sumRange(to, from) == (from == to ? sum(expected, from, to) : 0), "sumRange(" + to + ", " + from + ")");
+
+                check(equal(ours.floorKey(probe), expected.floorKey(probe)), "floorKey(" + probe + ")");
+                check(equal(ours.ceilingKey(probe), expected.ceilingKey(probe)), "ceilingKey(" + probe + ")");
+            }
+        }
+        check(ours.size() == expected.size(), "size " + ours.size() + " != " + expected.size());
+        check(ours.firstKey().equals(expected.firstKey()) && ours.lastKey().equals(expected.lastKey()), "first or last key");
+
+        arrayList<Integer> walked = new arrayList<>();
+        ours.forEachInRange(1_000, 2_000, (key, total) -> {
+            check(total == expected.get(key), "forEachInRange " + key + " => " + total);
+            walked.add(key);
+        });
+        check(walked.size() == expected.subMap(1_000, true, 2_000, true).size(), "forEachInRange visited " + walked.size());
+        for (int i = 1; i < walked.size(); i++) check(walked.get(i - 1) < walked.get(i), "forEachInRange out of order");
+
+        myTreeMap<Integer> sub = ours.subMap(1_000, 2_000);
+        check(sub.size() == walked.size() && sub.prefixSum(2_000) == sum(expected, 1_000, 2_000), "subMap totals");
+    }
+
+    private static double sum(TreeMap<Integer, Double> map, int from, int to) {
+        double total = 0;
+        for (double v : map.subMap(from, true, to, true).values()) total += v;
+        return total;
+    }
+
+    private static class Item implements Comparable<Item> {
+        final String key;
+        int priority;
+
+        Item(String key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Item o) {
+            return Integer.compare(priority, o.priority);
+        }
+    }
+
+    private static void testIndexedHeap(Random random) {
+        indexedpriorityqueue<String, Item> ours = new indexedpriorityqueue<>();
+        Map<String, Item> queued = new HashMap<>();
+
+        for (int op = 0; op < 50_000; op++) {
+            String key = "A" + random.nextInt(500);
+            Item item = queued.get(key);
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    if (item == null) {
+                        item = new Item(key, random.nextInt(10_000));
+                        ours.add(key, item);
+                        queued.put(key, item);
+                    }
+                }
+                case 1 -> {
+                    if (item != null) {
+                        item.priority -= random.nextInt(1_000);
+                        ours.decreaseKey(key);
+                    }
+                }
+                case 2 -> {
+                    if (item != null) {
+                        item.priority += random.nextInt(1_000);
+                        ours.increaseKey(key);
+                    }
+                }
+                case 3 -> {
+                    check(ours.remove(key) == queued.remove(key), "remove(" + key + ") at op " + op);
+                    check(!ours.contains(key), "contains(" + key + ") after remove");
+                }
+                default -> {
+                    if (random.nextInt(10) == 0) {
+                        Item polled = ours.poll();
+                        check(polled == null ? queued.isEmpty() : queued.remove(polled.key) == polled, "poll at op " + op);
+                    }
+                }
+            }
+
+            check(ours.size() == queued.size(), "size " + ours.size() + " != " + queued.size() + " at op " + op);
+            Item min = ours.peek();
+            int expectedMin = Integer.MAX_VALUE;
+            for (Item i : queued.values()) expectedMin = Math.min(expectedMin, i.priority);
+            check(min == null ? queued.isEmpty() : min.priority == expectedMin, "peek is not the minimum at op " + op);
+        }
+
+        arrayList<Item> lowest = ours.lowest(20);
+        for (int i = 1; i < lowest.size(); i++) check(lowest.get(i - 1).priority <= lowest.get(i).priority, "lowest() out of order");
+        int previous = Integer.MIN_VALUE;
+        while (ours.size() > 0) {
+            Item polled = ours.poll();
+            check(polled.priority >= previous, "poll out of order");
+            previous = polled.priority;
+        }
+    }
+
+    // Keys repeat a lot, so a sort that isn't stable shows up as an out-of-order original position
+    private static void testKeyedSorts(Random random) {
+        int n = 50_000;
+        arrayList<int[]> pairs = new arrayList<>();
+        intList rows = new intList();
+        int[] keyOfRow = new int[n];
+        for (int i = 0; i < n; i++) {
+            pairs.add(new int[]{random.nextInt(100), i});
+            keyOfRow[i] = random.nextInt(100);
+            rows.add(i);
+        }
+
+        pairs.sortByDoubleKey(p -> p[0]);
+        for (int i = 1; i < n; i++) {
+            int[] a = pairs.get(i - 1), b = pairs.get(i);
+            check(a[0] < b[0] || (a[0] == b[0] && a[1] < b[1]), "arrayList.sortByDoubleKey at " + i);
+        }
+
+        pairs.sortByKey(p -> String.format("%03d", 99 - p[0]));
+        for (int i = 1; i < n; i++) {
+            int[] a = pairs.get(i - 1), b = pairs.get(i);
+            check(a[0] > b[0] || (a[0] == b[0] && a[1] < b[1]), "arrayList.sortByKey at " + i);
+        }
+
+        rows.sortByDoubleKey(row -> keyOfRow[row]);
+        for (int i = 1; i < n; i++) {
+            int a = rows.get(i - 1), b = rows.get(i);
+            check(keyOfRow[a] < keyOfRow[b] || (keyOfRow[a] == keyOfRow[b] && a < b), "intList.sortByDoubleKey at " + i);
+        }
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -1,10 +1,17 @@
 package DSA;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
 @SuppressWarnings("unchecked")
 public class arrayList<T> {
     private T[] data;
     private int size;
     private final int INITIAL_CAPACITY = 10;
+    // Runs this short are insertion-sorted before merging
+    private static final int INSERTION_SORT_THRESHOLD = 32;
 
     public arrayList() {
         data = (T[]) new Object[INITIAL_CAPACITY];
@@ -16,6 +23,34 @@ public class arrayList<T> {
         data[size++] = value;
     }
 
+    public void add(int index, T value) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        ensureCapacity();
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    public T remove(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        T removed = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        data[--size] = null;
+        return removed;
+    }
+
+    public boolean remove(T value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == null ? value == null : data[i].equals(value)) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
     public T get(int index) {
         if (index < 0 || index >= size)
             throw new IndexOutOfBoundsException("Invalid index: " + index);
@@ -28,6 +63,11 @@ public class arrayList<T> {
         data[index] = value;
     }
 
+    public void clear() {
+        for (int i = 0; i < size; i++) data[i] = null;
+        size = 0;
+    }
+
     public int size() {
         return size;
     }
@@ -38,6 +78,72 @@ public class arrayList<T> {
         data[j] = temp;
     }
 
+    // Stable merge sort: insertion-sorted short runs, merges skipped when halves are already in order
+    public void sort(Comparator<? super T> comparator) {
+        T[] buffer = (T[]) new Object[size];
+        mergeSort(data, buffer, 0, size, comparator);
+    }
+
+    // Stable sort on a key computed once per element instead of once per comparison
+    public <K extends Comparable<? super K>> void sortByKey(Function<? super T, K> keyOf) {
+        Keyed<K, T>[] pairs = (Keyed<K, T>[]) new Keyed<?, ?>[size];
+        for (int i = 0; i < size; i++) pairs[i] = new Keyed<>(keyOf.apply(data[i]), data[i]);
+        Comparator<Keyed<K, T>> byKey = (x, y) -> x.key.compareTo(y.key);
+        mergeSort(pairs, (Keyed<K, T>[]) new Keyed<?, ?>[size], 0, size, byKey);
+        for (int i = 0; i < size; i++) data[i] = pairs[i].value;
+    }
+
+    // Same as sortByKey, but the keys are kept in a double[] so nothing is boxed: the positions are
+    // sorted by key with intList's keyed sort, then the elements are put in that order
+    public void sortByDoubleKey(ToDoubleFunction<? super T> keyOf) {
+        double[] keys = new double[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyOf.applyAsDouble(data[i]);
+            order[i] = i;
+        }
+        intList.sortByKeys(keys, order, size);
+
+        T[] unsorted = Arrays.copyOf(data, size);
+        for (int i = 0; i < size; i++) data[i] = unsorted[order[i]];
+    }
+
+    private static final class Keyed<K, T> {
+        final K key;
+        final T value;
+
+        Keyed(K key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static <E> void mergeSort(E[] a, E[] tmp, int lo, int hi, Comparator<? super E> c) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            for (int i = lo + 1; i < hi; i++) {
+                E x = a[i];
+                int j = i - 1;
+                while (j >= lo && c.compare(a[j], x) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid, c);
+        mergeSort(a, tmp, mid, hi, c);
+        if (c.compare(a[mid - 1], a[mid]) <= 0) return;
+
+        // Only the left half needs copying; the write index never overtakes the right half
+        System.arraycopy(a, lo, tmp, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) a[k++] = c.compare(a[j], tmp[i]) < 0 ? a[j++] : tmp[i++];
+        while (i < mid) a[k++] = tmp[i++];
+    }
+
     private void ensureCapacity() {
         if (size >= data.length) {
             T[] newData = (T[]) new Object[data.length * 2];
@@ -0,0 +1,129 @@
+package DSA;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Lock-striped hashmap: keys are spread over independent segments, each a hashmap guarded by its
+// own monitor, so threads working on different keys rarely wait for each other.
+public class concurrenthashmap<K, V> implements Iterable<hashmap.Node<K, V>> {
+
+       private static final int DEFAULT_SEGMENTS = 16;
+       private static final int MAX_SEGMENTS = 1 << 16;
+
+       private final hashmap<K, V>[] segments;
+       private final int shift;
+
+       public concurrenthashmap() {
+              this(DEFAULT_SEGMENTS);
+       }
+
+       // Rounded up to a power of two, at least 2
+       @SuppressWarnings("unchecked")
+       public concurrenthashmap(int concurrencyLevel) {
+              if (concurrencyLevel < 1)
+                     throw new IllegalArgumentException("Invalid concurrency level: " + concurrencyLevel);
+
+              int n = 2;
+              while (n < concurrencyLevel && n < MAX_SEGMENTS) n <<= 1;
+              segments = (hashmap<K, V>[]) new hashmap<?, ?>[n];
+              for (int i = 0; i < n; i++) segments[i] = new hashmap<>();
+              shift = 32 - Integer.numberOfTrailingZeros(n);
+       }
+
+       // Takes the segment from the top bits of a multiplicative hash; each segment's own table
+       // indexes by the low bits, so the two choices stay independent
+       private hashmap<K, V> segmentFor(Object key) {
+              return segments[(key.hashCode() * 0x9E3779B9) >>> shift];
+       }
+
+       public V get(K key) {
+              hashmap<K, V> segment = segmentFor(key);
+              synchronized (segment) {
+                     return segment.get(key);
+              }
+       }
+
+       public boolean containsKey(K key) {
+              return get(key) != null;
+       }
+
+       public void put(K key, V value) {
+              hashmap<K, V> segment = segmentFor(key);
+              synchronized (segment) {
+                     segment.put(key, value);
+              }
+       }
+
+       // Stores the value only if the key is absent; returns the value already there, or null
+       public V putIfAbsent(K key, V value) {
+              hashmap<K, V> segment = segmentFor(key);
+              synchronized (segment) {
+                     V current = segment.get(key);
+                     if (current == null) segment.put(key, value);
+                     return current;
+              }
+       }
+
+       public V remove(K key) {
+              hashmap<K, V> segment = segmentFor(key);
+              synchronized (segment) {
+                     return segment.remove(key);
+              }
+       }
+
+       // Sum over the segments; only exact when no other thread is writing
+       public int size() {
+              int size = 0;
+              for (hashmap<K, V> segment : segments) {
+                     synchronized (segment) {
+                            size += segment.size();
+                     }
+              }
+              return size;
+       }
+
+       public boolean isEmpty() {
+              return size() == 0;
+       }
+
+       public void clear() {
+              for (hashmap<K, V> segment : segments) {
+                     synchronized (segment) {
+                            segment.clear();
+                     }
+              }
+       }
+
+       // Walks a snapshot taken one segment at a time: entries present for the whole walk are seen
+       // exactly once, entries added or removed meanwhile may or may not be
+       @Override
+       public Iterator<hashmap.Node<K, V>> iterator() {
+              arrayList<hashmap.Node<K, V>> snapshot = new arrayList<>();
+              for (hashmap<K, V> segment : segments) {
+                     synchronized (segment) {
+                            for (hashmap.Node<K, V> node : segment) snapshot.add(node);
+                     }
+              }
+
+              return new Iterator<>() {
+                     private int next = 0;
+
+                     @Override
+                     public boolean hasNext() {
+                            return next < snapshot.size();
+                     }
+
+                     @Override
+                     public hashmap.Node<K, V> next() {
+                            if (next >= snapshot.size()) throw new NoSuchElementException();
+                            return snapshot.get(next++);
+                     }
+              };
+       }
+
+       public void printAll() {
+              for (hashmap.Node<K, V> node : this) {
+                     System.out.println(node.key + " => " + node.value);
+              }
+       }
+}
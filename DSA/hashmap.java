@@ -1,62 +1,203 @@
 package DSA;
 
-public class hashmap<K, V> {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class hashmap<K, V> implements Iterable<hashmap.Node<K, V>> {
        public static class Node<K, V> {
-              K key;
+              public final K key;
               public V value;
               public Node<K, V> next;
+              final int hash;
 
-              Node(K key, V value) {
+              Node(int hash, K key, V value) {
+                     this.hash = hash;
                      this.key = key;
                      this.value = value;
               }
        }
 
-       private final int SIZE = 16;
-       public Node<K, V>[] buckets;
+       private static final int DEFAULT_CAPACITY = 16;
+       private static final int MAX_CAPACITY = 1 << 30;
+       private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+       private Node<K, V>[] buckets;
+       private final float loadFactor;
+       private int threshold;
+       private int size;
 
-       @SuppressWarnings("unchecked")
        public hashmap() {
-              buckets = new Node[SIZE];
+              this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+       }
+
+       public hashmap(int initialCapacity) {
+              this(initialCapacity, DEFAULT_LOAD_FACTOR);
+       }
+
+       public hashmap(int initialCapacity, float loadFactor) {
+              if (initialCapacity < 0)
+                     throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+              if (loadFactor <= 0 || Float.isNaN(loadFactor))
+                     throw new IllegalArgumentException("Invalid load factor: " + loadFactor);
+
+              this.loadFactor = loadFactor;
+              int capacity = tableSizeFor(initialCapacity);
+              buckets = newTable(capacity);
+              threshold = (int) (capacity * loadFactor);
+       }
+
+       // Arrays can't be created generic, so the one unchecked cast lives here
+       @SuppressWarnings("unchecked")
+       private static <K, V> Node<K, V>[] newTable(int capacity) {
+              return (Node<K, V>[]) new Node<?, ?>[capacity];
+       }
+
+       // Rounds up to the next power of two so the index can be taken with a mask
+       private static int tableSizeFor(int capacity) {
+              int n = 1;
+              while (n < capacity && n < MAX_CAPACITY) n <<= 1;
+              return n;
        }
 
-       private int getIndex(K key) {
-              return Math.abs(key.hashCode()) % SIZE;
+       // Mixes the high bits into the low bits, since the mask only looks at the bottom ones
+       private static int spread(Object key) {
+              int h = key.hashCode();
+              return h ^ (h >>> 16);
+       }
+
+       private int getIndex(int hash) {
+              return hash & (buckets.length - 1);
        }
 
        public void put(K key, V value) {
-              int index = getIndex(key);
+              int hash = spread(key);
+              int index = getIndex(hash);
               Node<K, V> head = buckets[index];
 
               for (Node<K, V> curr = head; curr != null; curr = curr.next) {
-                     if (curr.key.equals(key)) {
+                     if (curr.hash == hash && curr.key.equals(key)) {
                             curr.value = value;
                             return;
                      }
               }
 
-              Node<K, V> newNode = new Node<>(key, value);
+              Node<K, V> newNode = new Node<>(hash, key, value);
               newNode.next = head;
               buckets[index] = newNode;
+
+              if (++size > threshold) resize();
        }
 
        public V get(K key) {
-              int index = getIndex(key);
+              Node<K, V> node = getNode(key);
+              return node == null ? null : node.value;
+       }
+
+       public boolean containsKey(K key) {
+              return getNode(key) != null;
+       }
+
+       private Node<K, V> getNode(K key) {
+              int hash = spread(key);
+              Node<K, V> curr = buckets[getIndex(hash)];
+              while (curr != null) {
+                     if (curr.hash == hash && curr.key.equals(key)) return curr;
+                     curr = curr.next;
+              }
+              return null;
+       }
+
+       public V remove(K key) {
+              int hash = spread(key);
+              int index = getIndex(hash);
               Node<K, V> curr = buckets[index];
+              Node<K, V> prev = null;
+
               while (curr != null) {
-                     if (curr.key.equals(key)) return curr.value;
+                     if (curr.hash == hash && curr.key.equals(key)) {
+                            if (prev == null) buckets[index] = curr.next;
+                            else prev.next = curr.next;
+                            size--;
+                            return curr.value;
+                     }
+                     prev = curr;
                      curr = curr.next;
               }
               return null;
        }
 
-       public void printAll() {
-              for (int i = 0; i < SIZE; i++) {
-                     Node<K, V> current = buckets[i];
-                     while (current != null) {
-                            System.out.println(current.key + " => " + current.value);
-                            current = current.next;
+       public int size() {
+              return size;
+       }
+
+       public boolean isEmpty() {
+              return size == 0;
+       }
+
+       public void clear() {
+              buckets = newTable(buckets.length);
+              size = 0;
+       }
+
+       // Doubles the table and re-links every node using its cached hash
+       private void resize() {
+              int oldCap = buckets.length;
+              if (oldCap >= MAX_CAPACITY) {
+                     threshold = Integer.MAX_VALUE;
+                     return;
+              }
+
+              int newCap = oldCap << 1;
+              Node<K, V>[] newBuckets = newTable(newCap);
+
+              for (int i = 0; i < oldCap; i++) {
+                     Node<K, V> curr = buckets[i];
+                     while (curr != null) {
+                            Node<K, V> next = curr.next;
+                            int index = curr.hash & (newCap - 1);
+                            curr.next = newBuckets[index];
+                            newBuckets[index] = curr;
+                            curr = next;
                      }
               }
+
+              buckets = newBuckets;
+              threshold = (int) (newCap * loadFactor);
+       }
+
+       @Override
+       public Iterator<Node<K, V>> iterator() {
+              return new Iterator<>() {
+                     private int bucket = 0;
+                     private Node<K, V> next = advance(null);
+
+                     private Node<K, V> advance(Node<K, V> curr) {
+                            if (curr != null && curr.next != null) return curr.next;
+                            while (bucket < buckets.length) {
+                                   Node<K, V> head = buckets[bucket++];
+                                   if (head != null) return head;
+                            }
+                            return null;
+                     }
+
+                     @Override
+                     public boolean hasNext() {
+                            return next != null;
+                     }
+
+                     @Override
+                     public Node<K, V> next() {
+                            if (next == null) throw new NoSuchElementException();
+                            Node<K, V> curr = next;
+                            next = advance(curr);
+                            return curr;
+                     }
+              };
+       }
+
+       public void printAll() {
+              for (Node<K, V> node : this) {
+                     System.out.println(node.key + " => " + node.value);
+              }
        }
 }
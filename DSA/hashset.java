@@ -1,76 +1,181 @@
 package DSA;
 
-public class hashset {
-    public static final int SIZE = 16; // ✅ Fixed: moved and defined only once
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Set of strings that ignores case: "Cement" and "cement" are one element, and the spelling added
+// first is the one kept. Chained like hashmap, over a power-of-two table that doubles once the 0.75
+// load factor is passed and halves once it is less than an eighth full.
+public class hashset implements Iterable<String> {
 
     public static class Node {
-        public String value;
+        public final String value;
         public Node next;
+        final int hash;
 
-        Node(String value) {
+        Node(int hash, String value) {
+            this.hash = hash;
             this.value = value;
         }
     }
 
-    public Node[] buckets;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private Node[] buckets;
+    private int size;
 
-    @SuppressWarnings("unchecked")
     public hashset() {
-        buckets = new Node[SIZE];
+        buckets = new Node[DEFAULT_CAPACITY];
+    }
+
+    // Sized so that expectedSize values fit without a resize
+    public hashset(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Invalid size: " + expectedSize);
+        buckets = new Node[tableSizeFor((int) Math.min(MAX_CAPACITY, (long) (expectedSize / LOAD_FACTOR) + 1))];
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = DEFAULT_CAPACITY;
+        while (n < capacity && n < MAX_CAPACITY) n <<= 1;
+        return n;
+    }
+
+    // Hash of the string as equalsIgnoreCase sees it: each character is folded the way that
+    // comparison folds it (upper case, then lower case), so equal strings always share a bucket
+    private static int foldedHash(String value) {
+        int h = 0;
+        for (int i = 0; i < value.length(); ) {
+            int cp = value.codePointAt(i);
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(cp));
+            i += Character.charCount(cp);
+        }
+        return h ^ (h >>> 16);
     }
 
-    private int getIndex(String value) {
-        return Math.abs(value.hashCode()) % SIZE;
+    private int getIndex(int hash) {
+        return hash & (buckets.length - 1);
     }
 
-    public void add(String value) {
-        int index = getIndex(value);
-        Node curr = buckets[index];
+    // Returns false when the value (in any case) was already there
+    public boolean add(String value) {
+        int hash = foldedHash(value);
+        int index = getIndex(hash);
 
-        while (curr != null) {
-            if (curr.value.equalsIgnoreCase(value)) return;
-            curr = curr.next;
+        for (Node curr = buckets[index]; curr != null; curr = curr.next) {
+            if (curr.hash == hash && curr.value.equalsIgnoreCase(value)) return false;
         }
 
-        Node newNode = new Node(value);
+        Node newNode = new Node(hash, value);
         newNode.next = buckets[index];
         buckets[index] = newNode;
+
+        if (++size > buckets.length * LOAD_FACTOR && buckets.length < MAX_CAPACITY) resize(buckets.length << 1);
+        return true;
     }
 
-    public boolean contains(String value) {
-        int index = getIndex(value);
-        Node curr = buckets[index];
+    // Adds every value, growing the table once up front; returns false when none of them was new
+    public boolean addAll(Iterable<String> values) {
+        if (values instanceof hashset other) {
+            int needed = tableSizeFor((int) Math.min(MAX_CAPACITY, (long) ((size + other.size) / LOAD_FACTOR) + 1));
+            if (needed > buckets.length) resize(needed);
+        }
+
+        boolean changed = false;
+        for (String value : values) changed |= add(value);
+        return changed;
+    }
 
-        while (curr != null) {
-            if (curr.value.equalsIgnoreCase(value)) return true;
-            curr = curr.next;
+    public boolean contains(String value) {
+        int hash = foldedHash(value);
+        for (Node curr = buckets[getIndex(hash)]; curr != null; curr = curr.next) {
+            if (curr.hash == hash && curr.value.equalsIgnoreCase(value)) return true;
         }
         return false;
     }
 
-    public void remove(String value) {
-        int index = getIndex(value);
-        Node curr = buckets[index];
+    // Returns false when the value was not there
+    public boolean remove(String value) {
+        int hash = foldedHash(value);
+        int index = getIndex(hash);
         Node prev = null;
 
-        while (curr != null) {
-            if (curr.value.equalsIgnoreCase(value)) {
+        for (Node curr = buckets[index]; curr != null; prev = curr, curr = curr.next) {
+            if (curr.hash == hash && curr.value.equalsIgnoreCase(value)) {
                 if (prev == null) buckets[index] = curr.next;
                 else prev.next = curr.next;
-                return;
+
+                if (--size < buckets.length / 8 && buckets.length > DEFAULT_CAPACITY) resize(buckets.length >> 1);
+                return true;
             }
-            prev = curr;
-            curr = curr.next;
         }
+        return false;
     }
 
-    public void printAll() {
-        for (int i = 0; i < SIZE; i++) {
-            Node curr = buckets[i];
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        buckets = new Node[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    // Re-links every node into a table of the new size using its cached hash
+    private void resize(int newCap) {
+        Node[] newBuckets = new Node[newCap];
+        for (Node head : buckets) {
+            Node curr = head;
             while (curr != null) {
-                System.out.println("📂 " + curr.value);
-                curr = curr.next;
+                Node next = curr.next;
+                int index = curr.hash & (newCap - 1);
+                curr.next = newBuckets[index];
+                newBuckets[index] = curr;
+                curr = next;
+            }
+        }
+        buckets = newBuckets;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int bucket = 0;
+            private Node next = advance(null);
+
+            private Node advance(Node curr) {
+                if (curr != null && curr.next != null) return curr.next;
+                while (bucket < buckets.length) {
+                    Node head = buckets[bucket++];
+                    if (head != null) return head;
+                }
+                return null;
             }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) throw new NoSuchElementException();
+                Node curr = next;
+                next = advance(curr);
+                return curr.value;
+            }
+        };
+    }
+
+    public void printAll() {
+        for (String value : this) {
+            System.out.println("📂 " + value);
         }
     }
 }
@@ -0,0 +1,159 @@
+package DSA;
+
+// Min-heap that also tracks where each key sits, so an entry whose priority changed
+// can be moved (or removed) in O(log n) instead of rebuilding the heap
+public class indexedpriorityqueue<K, T extends Comparable<T>> {
+    private final arrayList<T> heap = new arrayList<>();
+    private final arrayList<K> keys = new arrayList<>();
+    private final hashmap<K, Integer> position = new hashmap<>();
+
+    public void add(K key, T value) {
+        if (position.containsKey(key))
+            throw new IllegalArgumentException("Key already queued: " + key);
+
+        heap.add(value);
+        keys.add(key);
+        position.put(key, heap.size() - 1);
+        heapifyUp(heap.size() - 1);
+    }
+
+    public T peek() {
+        if (heap.size() == 0) return null;
+        return heap.get(0);
+    }
+
+    public T poll() {
+        if (heap.size() == 0) return null;
+        T root = heap.get(0);
+        removeAt(0);
+        return root;
+    }
+
+    public T get(K key) {
+        Integer i = position.get(key);
+        return i == null ? null : heap.get(i);
+    }
+
+    public boolean contains(K key) {
+        return position.containsKey(key);
+    }
+
+    public T remove(K key) {
+        Integer i = position.get(key);
+        if (i == null) return null;
+        T value = heap.get(i);
+        removeAt(i);
+        return value;
+    }
+
+    // Call after the value for this key got smaller
+    public void decreaseKey(K key) {
+        Integer i = position.get(key);
+        if (i != null) heapifyUp(i);
+    }
+
+    // Call after the value for this key got larger
+    public void increaseKey(K key) {
+        Integer i = position.get(key);
+        if (i != null) heapifyDown(i);
+    }
+
+    // Call after the value changed in either direction
+    public void update(K key) {
+        Integer i = position.get(key);
+        if (i == null) return;
+        if (heapifyUp(i) == i) heapifyDown(i);
+    }
+
+    // The k smallest values, smallest first, in O(k log k) without touching the heap
+    public arrayList<T> lowest(int k) {
+        arrayList<T> result = new arrayList<>();
+        if (heap.size() == 0 || k <= 0) return result;
+
+        // Frontier of heap indexes, itself kept as a small min-heap
+        priorityqueue<Candidate<T>> frontier = new priorityqueue<>();
+        frontier.add(new Candidate<>(0, heap.get(0)));
+
+        while (result.size() < k && frontier.size() > 0) {
+            Candidate<T> c = frontier.poll();
+            result.add(c.value);
+
+            int left = 2 * c.index + 1;
+            int right = left + 1;
+            if (left < heap.size()) frontier.add(new Candidate<>(left, heap.get(left)));
+            if (right < heap.size()) frontier.add(new Candidate<>(right, heap.get(right)));
+        }
+        return result;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    private static class Candidate<T extends Comparable<T>> implements Comparable<Candidate<T>> {
+        final int index;
+        final T value;
+
+        Candidate(int index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Candidate<T> o) {
+            return value.compareTo(o.value);
+        }
+    }
+
+    private void removeAt(int i) {
+        int last = heap.size() - 1;
+        position.remove(keys.get(i));
+
+        if (i != last) {
+            heap.set(i, heap.get(last));
+            keys.set(i, keys.get(last));
+            position.put(keys.get(i), i);
+        }
+        heap.remove(last);
+        keys.remove(last);
+
+        if (i < heap.size() && heapifyUp(i) == i) heapifyDown(i);
+    }
+
+    private void swap(int i, int j) {
+        heap.swap(i, j);
+        keys.swap(i, j);
+        position.put(keys.get(i), i);
+        position.put(keys.get(j), j);
+    }
+
+    // Returns the index the entry ended up at
+    private int heapifyUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap.get(i).compareTo(heap.get(parent)) >= 0) break;
+            swap(i, parent);
+            i = parent;
+        }
+        return i;
+    }
+
+    private void heapifyDown(int i) {
+        int size = heap.size();
+        while (i < size) {
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+            int smallest = i;
+
+            if (left < size && heap.get(left).compareTo(heap.get(smallest)) < 0)
+                smallest = left;
+            if (right < size && heap.get(right).compareTo(heap.get(smallest)) < 0)
+                smallest = right;
+
+            if (smallest == i) break;
+
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package DSA;
+
+import java.util.function.IntToDoubleFunction;
+
+// Growable list of primitive ints, for row numbers and day numbers that would otherwise be boxed
+public class intList {
+    private static final int INITIAL_CAPACITY = 10;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private int[] data;
+    private int size;
+
+    public intList() {
+        data = new int[INITIAL_CAPACITY];
+    }
+
+    public intList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        data = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) grow();
+        data[size++] = value;
+    }
+
+    public void add(int index, int value) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index);
+        if (size == data.length) grow();
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index);
+        return data[index];
+    }
+
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index);
+        data[index] = value;
+    }
+
+    public int remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index);
+        int removed = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    // Removes the first occurrence of the value; false when it isn't there
+    public boolean removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Stable sort on a key computed once per element, kept in a parallel double[]
+    public void sortByDoubleKey(IntToDoubleFunction keyOf) {
+        double[] keys = new double[size];
+        for (int i = 0; i < size; i++) keys[i] = keyOf.applyAsDouble(data[i]);
+        sortByKeys(keys, data, size);
+    }
+
+    // The keyed merge sort behind both lists' sortByDoubleKey: sorts the first n values by the
+    // parallel keys, moving each key with its value, and keeps equal keys in their original order
+    static void sortByKeys(double[] keys, int[] values, int n) {
+        mergeSort(keys, values, new double[n], new int[n], 0, n);
+    }
+
+    private static void mergeSort(double[] keys, int[] a, double[] keyTmp, int[] tmp, int lo, int hi) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            for (int i = lo + 1; i < hi; i++) {
+                double key = keys[i];
+                int x = a[i];
+                int j = i - 1;
+                while (j >= lo && Double.compare(keys[j], key) > 0) {
+                    keys[j + 1] = keys[j];
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                a[j + 1] = x;
+            }
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        mergeSort(keys, a, keyTmp, tmp, lo, mid);
+        mergeSort(keys, a, keyTmp, tmp, mid, hi);
+        if (Double.compare(keys[mid - 1], keys[mid]) <= 0) return;
+
+        System.arraycopy(keys, lo, keyTmp, lo, mid - lo);
+        System.arraycopy(a, lo, tmp, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (Double.compare(keys[j], keyTmp[i]) < 0) {
+                keys[k] = keys[j];
+                a[k++] = a[j++];
+            } else {
+                keys[k] = keyTmp[i];
+                a[k++] = tmp[i++];
+            }
+        }
+        while (i < mid) {
+            keys[k] = keyTmp[i];
+            a[k++] = tmp[i++];
+        }
+    }
+
+    private void grow() {
+        int[] bigger = new int[data.length * 2];
+        System.arraycopy(data, 0, bigger, 0, size);
+        data = bigger;
+    }
+}
@@ -24,6 +24,11 @@ public class linkedList {
         }
     }
 
+    public void clear() {
+        head = null;
+        tail = null;
+    }
+
     public String[] toArray() {
         int count = 0;
         Node current = head;
@@ -0,0 +1,81 @@
+package DSA;
+
+// longHashMap with primitive double values, for running totals keyed by a number (a day, a month,
+// an id): add() finds the slot once and sums in place, with no Double boxed per update.
+public class longDoubleMap extends longKeyTable {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, double value);
+    }
+
+    private double[] values;
+
+    public longDoubleMap() {
+        this(0);
+    }
+
+    // Sized so that expectedSize entries fit without a resize
+    public longDoubleMap(int expectedSize) {
+        super(expectedSize);
+        values = new double[keys.length + 1];
+    }
+
+    public double getOrDefault(long key, double defaultValue) {
+        int slot = slot(key);
+        return slot == -1 ? defaultValue : values[slot];
+    }
+
+    public void put(long key, double value) {
+        int slot = claim(key);
+        values[slot < 0 ? ~slot : slot] = value;
+    }
+
+    // Adds to the key's total, starting it at 0 when the key is new
+    public void add(long key, double amount) {
+        int slot = claim(key);
+        if (slot < 0) values[~slot] = amount;
+        else values[slot] += amount;
+    }
+
+    // Returns false when the key was not there
+    public boolean remove(long key) {
+        int slot = slot(key);
+        if (slot == -1) return false;
+        removeAt(slot);
+        return true;
+    }
+
+    // In table order; the map must not be changed meanwhile
+    public void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept(keys[i], values[i]);
+        }
+        if (hasZero) action.accept(0, values[keys.length]);
+    }
+
+    @Override
+    Object swapValues(int length) {
+        double[] old = values;
+        values = new double[length];
+        return old;
+    }
+
+    @Override
+    void copyValue(Object oldValues, int from, int to) {
+        values[to] = ((double[]) oldValues)[from];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+    }
+
+    public void printAll() {
+        forEach((key, value) -> System.out.println(key + " => " + value));
+    }
+}
@@ -0,0 +1,124 @@
+package DSA;
+
+// Map from long keys to objects with no node per entry: keys in a long[] probed linearly, values in a
+// parallel array (see longKeyTable). For ids and codes that are numbers, which would otherwise be
+// hashed as Strings and chained through hashmap.
+public class longHashMap<V> extends longKeyTable {
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    // What numericKey returns for a string that isn't a plain number; it never spells this itself
+    public static final long NOT_NUMERIC = -1;
+
+    private Object[] values;
+
+    public longHashMap() {
+        this(0);
+    }
+
+    // Sized so that expectedSize entries fit without a resize
+    public longHashMap(int expectedSize) {
+        super(expectedSize);
+        values = new Object[keys.length + 1];
+    }
+
+    public longHashMap(longHashMap<V> other) {
+        super(other);
+        values = other.values.clone();
+    }
+
+    // The number a string of 1 to 18 decimal digits spells, with no sign and no leading zero, so
+    // that Long.toString gives the same string back; NOT_NUMERIC for anything else. Lets a
+    // String-keyed map keep its numeric keys in a long-keyed one, and the rest where they were.
+    public static long numericKey(String s) {
+        if (s == null) return NOT_NUMERIC;
+        int n = s.length();
+        if (n == 0 || n > 18 || (n > 1 && s.charAt(0) == '0')) return NOT_NUMERIC;
+
+        long value = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return NOT_NUMERIC;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = slot(key);
+        return slot == -1 ? null : (V) values[slot];
+    }
+
+    // Returns the previous value, or null
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        int slot = claim(key);
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    // Returns the value already there, or null when this one was added
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(long key, V value) {
+        int slot = claim(key);
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        return (V) values[slot];
+    }
+
+    // Returns the removed value, or null
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slot(key);
+        if (slot == -1) return null;
+        V previous = (V) values[slot];
+        removeAt(slot);
+        return previous;
+    }
+
+    // In table order; the map must not be changed meanwhile
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept(keys[i], (V) values[i]);
+        }
+        if (hasZero) action.accept(0, (V) values[keys.length]);
+    }
+
+    @Override
+    Object swapValues(int length) {
+        Object[] old = values;
+        values = new Object[length];
+        return old;
+    }
+
+    @Override
+    void copyValue(Object oldValues, int from, int to) {
+        values[to] = ((Object[]) oldValues)[from];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+
+    public void printAll() {
+        forEach((key, value) -> System.out.println(key + " => " + value));
+    }
+}
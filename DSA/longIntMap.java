@@ -0,0 +1,63 @@
+package DSA;
+
+// longHashMap with primitive int values, for row numbers that would otherwise be boxed
+public class longIntMap extends longKeyTable {
+
+    private int[] values;
+
+    public longIntMap() {
+        this(0);
+    }
+
+    // Sized so that expectedSize entries fit without a resize
+    public longIntMap(int expectedSize) {
+        super(expectedSize);
+        values = new int[keys.length + 1];
+    }
+
+    public int getOrDefault(long key, int defaultValue) {
+        int slot = slot(key);
+        return slot == -1 ? defaultValue : values[slot];
+    }
+
+    public void put(long key, int value) {
+        int slot = claim(key);
+        values[slot < 0 ? ~slot : slot] = value;
+    }
+
+    // Returns false when the key was not there
+    public boolean remove(long key) {
+        int slot = slot(key);
+        if (slot == -1) return false;
+        removeAt(slot);
+        return true;
+    }
+
+    @Override
+    Object swapValues(int length) {
+        int[] old = values;
+        values = new int[length];
+        return old;
+    }
+
+    @Override
+    void copyValue(Object oldValues, int from, int to) {
+        values[to] = ((int[]) oldValues)[from];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+    }
+
+    public void printAll() {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) System.out.println(keys[i] + " => " + values[i]);
+        }
+        if (hasZero) System.out.println("0 => " + values[keys.length]);
+    }
+}
@@ -0,0 +1,173 @@
+package DSA;
+
+// Open-addressing table of long keys behind longHashMap, longIntMap and longDoubleMap. The keys sit
+// in one long[] and are found by linear probing, so an entry costs no node object. 0 marks a free
+// slot; the key 0 itself lives in one extra slot past the end. A removal shifts the rest of its run
+// back instead of leaving a tombstone. Each map keeps its values in an array parallel to keys, one
+// longer to hold the value of key 0.
+abstract class longKeyTable {
+
+    static final int DEFAULT_CAPACITY = 16;
+    static final int MAX_CAPACITY = 1 << 30;
+    // Kept lower than hashmap's 0.75: past this, linear probing runs grow long
+    static final float LOAD_FACTOR = 0.7f;
+
+    long[] keys;
+    boolean hasZero;
+    int size;
+    private int mask;
+    private int threshold;
+
+    longKeyTable(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Invalid size: " + expectedSize);
+        setCapacity(tableSizeFor((int) Math.min(MAX_CAPACITY, (long) (expectedSize / LOAD_FACTOR) + 1)));
+    }
+
+    longKeyTable(longKeyTable other) {
+        keys = other.keys.clone();
+        hasZero = other.hasZero;
+        size = other.size;
+        mask = other.mask;
+        threshold = other.threshold;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = DEFAULT_CAPACITY;
+        while (n < capacity && n < MAX_CAPACITY) n <<= 1;
+        return n;
+    }
+
+    private void setCapacity(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity - 1, (long) (capacity * LOAD_FACTOR));
+    }
+
+    // Replaces the value array with an empty one of the given length and returns the old one
+    abstract Object swapValues(int length);
+
+    // Copies the value at from in an array swapValues returned to slot to of the current one
+    abstract void copyValue(Object oldValues, int from, int to);
+
+    // Moves a value from one slot to another during a removal
+    abstract void moveValue(int from, int to);
+
+    // Lets go of the value in a slot that was just freed
+    abstract void clearValue(int slot);
+
+    // Sequential keys (codes, ids, days) would fill one run; the multiply spreads them over the table
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    // The key's slot, or -1 when it isn't there
+    final int slot(long key) {
+        if (key == 0) return hasZero ? keys.length : -1;
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return i;
+            if (k == 0) return -1;
+        }
+    }
+
+    // The key's slot when it is already there; otherwise claims one for it and returns ~slot, so
+    // the caller knows to fill the value in
+    final int claim(long key) {
+        if (key == 0) {
+            if (hasZero) return keys.length;
+            hasZero = true;
+            size++;
+            return ~keys.length;
+        }
+
+        int i = index(key);
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return i;
+        }
+        if (size >= threshold) {
+            if (keys.length < MAX_CAPACITY) {
+                rehash(keys.length << 1);
+                i = freeSlot(key);
+            } else if (size >= keys.length - 1) {
+                // No bigger table to move to, and every probe needs a free slot to stop at
+                throw new IllegalStateException("Table is full: " + size + " keys");
+            }
+        }
+        keys[i] = key;
+        size++;
+        return ~i;
+    }
+
+    private int freeSlot(long key) {
+        int i = index(key);
+        while (keys[i] != 0) i = (i + 1) & mask;
+        return i;
+    }
+
+    // Empties a slot and closes the gap: each later entry of the run moves back into it unless
+    // its own home slot lies after the gap, in which case moving it would hide it from lookups
+    final void removeAt(int slot) {
+        size--;
+        if (slot == keys.length) {
+            hasZero = false;
+            clearValue(slot);
+        } else {
+            int gap = slot;
+            for (int i = (gap + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                int home = index(keys[i]);
+                boolean movable = gap <= i ? (home <= gap || home > i) : (home <= gap && home > i);
+                if (movable) {
+                    keys[gap] = keys[i];
+                    moveValue(i, gap);
+                    gap = i;
+                }
+            }
+            keys[gap] = 0;
+            clearValue(gap);
+        }
+
+        if (size < keys.length / 8 && keys.length > DEFAULT_CAPACITY) rehash(keys.length >> 1);
+    }
+
+    // Re-places every key in a table of the new size; the key 0 moves to the new last slot
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        setCapacity(capacity);
+        Object oldValues = swapValues(capacity + 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0) continue;
+            int j = freeSlot(key);
+            keys[j] = key;
+            copyValue(oldValues, i, j);
+        }
+        if (hasZero) copyValue(oldValues, oldKeys.length, capacity);
+    }
+
+    // True when a new key goes in without a rehash, so the arrays stay the ones already handed out
+    public boolean hasRoom() {
+        return size < threshold;
+    }
+
+    public boolean containsKey(long key) {
+        return slot(key) != -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        setCapacity(DEFAULT_CAPACITY);
+        swapValues(DEFAULT_CAPACITY + 1);
+        hasZero = false;
+        size = 0;
+    }
+}
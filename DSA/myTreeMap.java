@@ -1,48 +1,270 @@
 package DSA;
 
-import java.time.YearMonth;
+import java.util.function.ObjDoubleConsumer;
 
-public class myTreeMap {
-    private Node root;
+// AVL tree from keys to running totals. put() adds to the value already stored for a key.
+// Every node also carries the total of its subtree, so prefix and range sums are O(log n).
+public class myTreeMap<K extends Comparable<? super K>> {
+    private Node<K> root;
+    private int size;
+    // AVL height stays below 1.45 * log2(n + 2), so 64 levels is more than any int-sized tree needs
+    private final Node<K>[] path = newPath(64);
 
-    private static class Node {
-        YearMonth key;
+    private static class Node<K> {
+        K key;
         double value;
-        Node left, right;
+        Node<K> left, right;
+        int height = 1;
+        double sum; // value + everything below
 
-        Node(YearMonth key, double value) {
+        Node(K key, double value) {
             this.key = key;
             this.value = value;
+            this.sum = value;
         }
     }
 
-    public void put(YearMonth key, double value) {
-        root = insert(root, key, value);
+    public void put(K key, double value) {
+        if (root == null) {
+            root = new Node<>(key, value);
+            size++;
+            return;
+        }
+
+        int depth = 0;
+        Node<K> curr = root;
+        while (curr != null) {
+            path[depth++] = curr;
+            int cmp = key.compareTo(curr.key);
+            if (cmp == 0) {
+                curr.value += value; // aggregate value if key exists
+                for (int i = depth - 1; i >= 0; i--) {
+                    update(path[i]);
+                    path[i] = null;
+                }
+                return;
+            }
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+
+        Node<K> parent = path[depth - 1];
+        if (key.compareTo(parent.key) < 0) parent.left = new Node<>(key, value);
+        else parent.right = new Node<>(key, value);
+        size++;
+
+        // Walk back up, fixing heights and sums and rotating where a side got too tall
+        for (int i = depth - 1; i >= 0; i--) {
+            Node<K> n = path[i];
+            Node<K> balanced = rebalance(n);
+            if (i == 0) root = balanced;
+            else if (path[i - 1].left == n) path[i - 1].left = balanced;
+            else path[i - 1].right = balanced;
+            path[i] = null;
+        }
+    }
+
+    // Returns null when the key is absent
+    public Double get(K key) {
+        Node<K> n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp == 0) return n.value;
+            n = cmp < 0 ? n.left : n.right;
+        }
+        return null;
     }
 
-    private Node insert(Node node, YearMonth key, double value) {
-        if (node == null) return new Node(key, value);
+    public int size() {
+        return size;
+    }
 
-        int cmp = key.compareTo(node.key);
-        if (cmp < 0)
-            node.left = insert(node.left, key, value);
-        else if (cmp > 0)
-            node.right = insert(node.right, key, value);
-        else
-            node.value += value; // aggregate value if key exists
+    public void clear() {
+        root = null;
+        size = 0;
+    }
 
-        return node;
+    public K firstKey() {
+        if (root == null) return null;
+        Node<K> n = root;
+        while (n.left != null) n = n.left;
+        return n.key;
+    }
+
+    public K lastKey() {
+        if (root == null) return null;
+        Node<K> n = root;
+        while (n.right != null) n = n.right;
+        return n.key;
+    }
+
+    // Greatest key <= the given one, or null
+    public K floorKey(K key) {
+        K best = null;
+        Node<K> n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp == 0) return n.key;
+            if (cmp > 0) {
+                best = n.key;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return best;
+    }
+
+    // Smallest key >= the given one, or null
+    public K ceilingKey(K key) {
+        K best = null;
+        Node<K> n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp == 0) return n.key;
+            if (cmp < 0) {
+                best = n.key;
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return best;
+    }
+
+    // Total of every value whose key is <= the given one
+    public double prefixSum(K key) {
+        return prefixSum(key, true);
+    }
+
+    // Total of values with from <= key <= to
+    public double sumRange(K from, K to) {
+        if (from.compareTo(to) > 0) return 0;
+        return prefixSum(to, true) - prefixSum(from, false);
+    }
+
+    // Entries with from <= key <= to as a new (balanced) tree, in O(log n + k)
+    public myTreeMap<K> subMap(K from, K to) {
+        arrayList<K> keys = new arrayList<>();
+        arrayList<Double> values = new arrayList<>();
+        forEachInRange(from, to, (k, v) -> {
+            keys.add(k);
+            values.add(v);
+        });
+
+        myTreeMap<K> sub = new myTreeMap<>();
+        sub.root = build(keys, values, 0, keys.size());
+        sub.size = keys.size();
+        return sub;
+    }
+
+    public void forEach(ObjDoubleConsumer<K> action) {
+        if (root == null) return;
+        forEachInRange(firstKey(), lastKey(), action);
+    }
+
+    // In-order walk that skips subtrees entirely outside [from, to]
+    public void forEachInRange(K from, K to, ObjDoubleConsumer<K> action) {
+        stack<Node<K>> pending = new stack<>();
+        Node<K> curr = root;
+
+        while (curr != null || !pending.isEmpty()) {
+            while (curr != null) {
+                if (curr.key.compareTo(from) < 0) {
+                    curr = curr.right;
+                } else {
+                    pending.push(curr);
+                    curr = curr.left;
+                }
+            }
+
+            if (pending.isEmpty()) return; // the rest of the tree was below from
+
+            Node<K> n = pending.pop();
+            if (n.key.compareTo(to) > 0) return;
+            action.accept(n.key, n.value);
+            curr = n.right;
+        }
     }
 
     public void printInOrder() {
-        printInOrder(root);
+        forEach((key, value) -> System.out.println(key + ": GHS " + String.format("%.2f", value)));
+    }
+
+    private double prefixSum(K key, boolean inclusive) {
+        double total = 0;
+        Node<K> n = root;
+        while (n != null) {
+            int cmp = key.compareTo(n.key);
+            if (cmp > 0 || (cmp == 0 && inclusive)) {
+                total += sum(n.left) + n.value;
+                if (cmp == 0) break;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return total;
+    }
+
+    private static <K> Node<K> build(arrayList<K> keys, arrayList<Double> values, int lo, int hi) {
+        if (lo >= hi) return null;
+        int mid = (lo + hi) >>> 1;
+        Node<K> n = new Node<>(keys.get(mid), values.get(mid));
+        n.left = build(keys, values, lo, mid);
+        n.right = build(keys, values, mid + 1, hi);
+        update(n);
+        return n;
+    }
+
+    // Arrays can't be created generic, so the one unchecked cast lives here
+    @SuppressWarnings("unchecked")
+    private static <K> Node<K>[] newPath(int length) {
+        return (Node<K>[]) new Node<?>[length];
+    }
+
+    private static int height(Node<?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static double sum(Node<?> n) {
+        return n == null ? 0 : n.sum;
+    }
+
+    private static void update(Node<?> n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        n.sum = sum(n.left) + n.value + sum(n.right);
     }
 
-    private void printInOrder(Node node) {
-        if (node == null) return;
+    private static <K> Node<K> rebalance(Node<K> n) {
+        update(n);
+        int balance = height(n.left) - height(n.right);
+
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) n.left = rotateLeft(n.left);
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) n.right = rotateRight(n.right);
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private static <K> Node<K> rotateRight(Node<K> n) {
+        Node<K> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
 
-        printInOrder(node.left);
-        System.out.println(node.key + ": GHS " + String.format("%.2f", node.value));
-        printInOrder(node.right);
+    private static <K> Node<K> rotateLeft(Node<K> n) {
+        Node<K> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
     }
 }
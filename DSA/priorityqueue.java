@@ -21,10 +21,12 @@ public class priorityqueue<T extends Comparable<T>> {
         if (heap.size() == 0) return null;
 
         T root = heap.get(0);
-        T last = heap.get(heap.size() - 1);
+        T last = heap.remove(heap.size() - 1);
 
-        heap.set(0, last);
-        heapifyDown(0);
+        if (heap.size() > 0) {
+            heap.set(0, last);
+            heapifyDown(0);
+        }
         return root;
     }
 
@@ -4,7 +4,7 @@ import java.util.Scanner;
 
 public class Expenditure_Management_System {
     public static void main(String[] args) {
-        Scanner input = new Scanner(System.in);
+        Scanner input = console.in;
 
         while (true) {
             System.out.println("\n------Welcome To Nkwa Tracking App------\n");
@@ -13,6 +13,7 @@ import java.time.YearMonth;
 public class DSAPerformanceTest {
     public static void run() {
         System.out.println("\n=== 📊 DSA PERFORMANCE TESTS ===");
+        System.out.println("(single cold runs, a quick sanity check only; the JMH suite in bench/ gives real numbers)");
 
         testArrayListSort();
         testLinkedList();
@@ -25,14 +26,18 @@ public class DSAPerformanceTest {
 
     private static void testArrayListSort() {
         arrayList<Integer> al = new arrayList<>();
-        for (int i = 1000; i > 0; i--) al.add(i);
+        for (int i = 100000; i > 0; i--) al.add(i);
         long s = System.nanoTime();
-        for (int i = 0; i < al.size()-1; i++)
-            for (int j = i+1; j < al.size(); j++)
-                if (al.get(i) > al.get(j))
-                    al.swap(i, j);
+        al.sort(Integer::compare);
         long e = System.nanoTime();
-        System.out.println("arrayList bubble‑sort (1k ints): " + (e-s)/1e6 + " ms");
+        System.out.println("arrayList merge‑sort (100k ints): " + (e-s)/1e6 + " ms");
+
+        arrayList<Integer> keyed = new arrayList<>();
+        for (int i = 100000; i > 0; i--) keyed.add(i);
+        s = System.nanoTime();
+        keyed.sortByDoubleKey(i -> i);
+        e = System.nanoTime();
+        System.out.println("arrayList keyed merge‑sort (100k ints): " + (e-s)/1e6 + " ms");
     }
 
     private static void testLinkedList() {
@@ -88,7 +93,7 @@ public class DSAPerformanceTest {
     }
 
     private static void testTreeMap() {
-        myTreeMap reportMap = new myTreeMap();
+        myTreeMap<YearMonth> reportMap = new myTreeMap<>();
         System.out.println("\n📈 Testing TreeMap (Reports by Month)...");
 
         long start = System.nanoTime();
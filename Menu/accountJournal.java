@@ -0,0 +1,208 @@
+package Menu;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+// Append-only log of balance changes, replayed over the accounts.txt snapshot on startup.
+// Appends may come from many threads; flush and truncate only from the holder of groupCommit.ioLock.
+class accountJournal {
+
+    static final String FILE_NAME = "Menu/accounts.journal";
+    // Line written ahead of each commit's entries (and into each snapshot): the ledger file's length
+    // and row count as last written. Every row below it is on disk, so startup only has to look for
+    // the records of debits past it.
+    static final String LEDGER_MARK = "#ledger=";
+
+    // Sequence number of the last entry written or replayed
+    private static long lastSeq = 0;
+    // Entries appended since the last snapshot
+    private static int pending = 0;
+    // Lines appended but not yet written
+    private static final StringBuilder buffer = new StringBuilder();
+    // The last ledger mark written, so an unchanged one isn't written again
+    private static String writtenMark;
+
+    interface Replay {
+        // row is the ledger row an expenditure's debit pays for, or -1
+        void apply(String accountId, double delta, int row, String reason);
+    }
+
+    // Format per line: seq,accountId,delta,timestampMillis,row,reason
+    // The line is buffered; it reaches the file with the next group commit
+    static synchronized void append(String accountId, double delta, int row, String reason) {
+        long seq = lastSeq + 1;
+        buffer.append(seq).append(',').append(accountId).append(',').append(delta).append(',')
+                .append(System.currentTimeMillis()).append(',').append(row).append(',').append(reason).append('\n');
+        lastSeq = seq;
+        pending++;
+    }
+
+    // Length of the buffered lines, taken by groupCommit under the records lock so the
+    // lines it later flushes match the ledger batch it took at the same moment
+    static synchronized int buffered() {
+        return buffer.length();
+    }
+
+    // Writes the ledger mark if there is a new one, then the first upTo buffered characters, with one fsync;
+    // a change only counts once it is on disk. On failure the file is cut back to where it was, so the
+    // retry doesn't land after a torn line, and the lines stay buffered.
+    static void flush(int upTo, String ledgerMark) throws IOException {
+        String lines;
+        synchronized (accountJournal.class) {
+            lines = buffer.substring(0, upTo);
+        }
+        boolean newMark = ledgerMark != null && !ledgerMark.equals(writtenMark);
+        if (newMark) lines = ledgerMark + "\n" + lines;
+        if (lines.isEmpty()) return;
+
+        File file = new File(FILE_NAME);
+        long length = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            try {
+                out.write(lines.getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            } catch (IOException e) {
+                ledger.truncate(file, length, e);
+                throw e;
+            }
+        }
+
+        synchronized (accountJournal.class) {
+            buffer.delete(0, upTo);
+        }
+        if (newMark) writtenMark = ledgerMark;
+    }
+
+    // {length, rows} from a LEDGER_MARK line, or null if it isn't one
+    static long[] parseMark(String line) {
+        if (!line.startsWith(LEDGER_MARK)) return null;
+        String[] parts = line.substring(LEDGER_MARK.length()).split(",");
+        if (parts.length != 2) return null;
+        try {
+            return new long[]{Long.parseLong(parts[0].trim()), Long.parseLong(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Applies every entry newer than the snapshot, once each, and returns the furthest ledger mark
+    // seen (or null); a torn last line from a crash is ignored
+    static long[] replay(long snapshotSeq, Replay replay) {
+        return replay(new File(FILE_NAME), snapshotSeq, replay);
+    }
+
+    static long[] replay(File file, long snapshotSeq, Replay replay) {
+        lastSeq = snapshotSeq;
+        pending = 0;
+        long[] furthest = null;
+
+        if (!file.exists()) return null;
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                long[] mark = parseMark(line);
+                if (mark != null) {
+                    if (furthest == null || mark[1] > furthest[1]) furthest = mark;
+                    continue;
+                }
+
+                String[] parts = line.split(",", 6);
+                if (parts.length < 5) continue;
+
+                long seq;
+                double delta;
+                try {
+                    seq = Long.parseLong(parts[0]);
+                    delta = Double.parseDouble(parts[2]);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (seq <= lastSeq) continue; // in the snapshot, or written twice by a retried flush
+
+                // Lines from before rows were journaled have the reason straight after the timestamp
+                int row = -1;
+                String reason = null;
+                if (parts.length == 6) {
+                    try {
+                        row = Integer.parseInt(parts[4]);
+                        reason = parts[5];
+                    } catch (NumberFormatException e) {
+                        // an older line whose reason has a comma in it
+                    }
+                }
+                if (reason == null) reason = line.split(",", 5)[4];
+                replay.apply(parts[1], delta, row, reason);
+                lastSeq = seq;
+                pending++;
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading journal: " + e.getMessage());
+        }
+        return furthest;
+    }
+
+    static synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    static synchronized int pending() {
+        return pending;
+    }
+
+    // Called once a snapshot covering every entry up to coveredSeq is safely on disk. Buffered lines
+    // up to coveredSeq are dropped first; later ones were appended after the snapshot and are kept.
+    // The file is then rewritten through a temp file and an atomic move, keeping any entry past
+    // coveredSeq, so a crash leaves either the old journal or the new one. A failure here only means
+    // replay skips the covered entries again.
+    static void truncate(long coveredSeq) {
+        synchronized (accountJournal.class) {
+            int covered = 0;
+            while (covered < buffer.length()) {
+                int comma = buffer.indexOf(",", covered);
+                if (Long.parseLong(buffer.substring(covered, comma)) > coveredSeq) break;
+                covered = buffer.indexOf("\n", comma) + 1;
+            }
+            buffer.delete(0, covered);
+
+            pending = 0;
+            for (int i = 0; i < buffer.length(); i++) {
+                if (buffer.charAt(i) == '\n') pending++;
+            }
+        }
+
+        dropCovered(new File(FILE_NAME), coveredSeq);
+    }
+
+    // Rewrites the journal file without the entries up to coveredSeq, or its marks
+    static void dropCovered(File file, long coveredSeq) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            StringBuilder kept = new StringBuilder();
+            if (file.exists()) {
+                try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        int comma = line.indexOf(',');
+                        if (comma <= 0) continue;
+                        try {
+                            if (Long.parseLong(line.substring(0, comma)) > coveredSeq) kept.append(line).append('\n');
+                        } catch (NumberFormatException e) {
+                            // a mark or a torn line; the snapshot carries the mark
+                        }
+                    }
+                }
+            }
+
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                out.write(kept.toString().getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Error truncating journal: " + e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package Menu;
 
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
 import DSA.hashmap;
-import DSA.linkedList;
+import DSA.intList;
+import DSA.longHashMap;
+import DSA.longIntMap;
+
+import java.util.concurrent.locks.ReentrantLock;
 
 public class addExpenditure {
 
-    static hashmap<String, Expenditure> expenditureMap = new hashmap<>();
-    static linkedList historyList = new linkedList();
+    // code -> latest row in ledger.store(), through rowOf(). Numeric codes, the usual kind, are kept as
+    // longs with no object per entry; any other code falls back to the string map. Read and written
+    // under expenditureService.lock, with history and the index.
+    private static final longIntMap numericCodes = new longIntMap();
+    private static final hashmap<String, Integer> otherCodes = new hashmap<>();
+    // First row of every code, in the order the codes were first recorded
+    static final intList history = new intList();
 
-    static class Expenditure {
+    public static class Expenditure {
         String code;
         double amount;
         LocalDate date;
@@ -31,8 +39,37 @@ public class addExpenditure {
             this.accountId = accountId;
         }
 
+        public String code() {
+            return code;
+        }
+
+        public double amount() {
+            return amount;
+        }
+
+        public LocalDate date() {
+            return date;
+        }
+
+        public String phase() {
+            return phase;
+        }
+
+        public String category() {
+            return category;
+        }
+
+        public String accountId() {
+            return accountId;
+        }
+
         @Override
         public String toString() {
+            return describe(code, amount, date, phase, category, accountId);
+        }
+
+        // The ledger's text format for one record, shared with expenditureStore.View
+        static String describe(String code, double amount, LocalDate date, String phase, String category, String accountId) {
             return "Code: " + code + "\nAmount: " + amount + "\nDate: " + date +
                     "\nPhase: " + phase + "\nCategory: " + category + "\nAccount: " + accountId;
         }
@@ -43,30 +80,25 @@ public class addExpenditure {
     }
 
     public static void spending() {
-        Scanner s = new Scanner(System.in);
+        Scanner s = console.in;
 
         while (true) {
             System.out.println("\n----- Fill Up All Fields -----");
 
             String code = getValidInput(s, "Item code", input -> !input.isEmpty());
 
-            double amount = getValidDouble(s, "Amount", input -> input >= 0);
+            double amount = getValidDouble(s, "Amount", input -> input >= 0 && Double.isFinite(input));
 
             LocalDate date = getValidDate(s, "Date of issue (YYYY‑MM‑DD)");
 
-            String phase = getValidInput(s, "Phase (Construction/Marketing/Sales)", input -> {
-                String p = input.toLowerCase();
-                return p.equals("construction") || p.equals("marketing") || p.equals("sales");
-            });
+            String phase = getValidInput(s, "Phase (Construction/Marketing/Sales)", expenditureService::isPhase);
 
             String category = getValidInput(s, "Category", input -> !input.isEmpty());
-            manageCategories.addCategoryIfNew(category);  // ✅ THIS LINE ensures the category is saved
+            boolean newCategory = !manageCategories.categorySet.contains(category);
 
             String account = getValidInput(s, "Bank Account ID", input -> !input.isEmpty());
 
-            bankAccount.BankAccount acc = bankAccount.accounts.get(account);
-
-            if (acc == null) {
+            if (expenditureService.account(account) == null) {
                 System.out.println("❌ Account ID not found in accounts.txt.");
                 System.out.print("➕ Do you want to create it now? (yes/no): ");
                 String addNow = s.nextLine().trim().toLowerCase();
@@ -90,44 +122,38 @@ public class addExpenditure {
                     }
                 }
 
-                acc = new bankAccount.BankAccount(account, name, initialBalance);
-                bankAccount.accounts.put(account, acc);
-                bankAccount.queue.add(acc);
-                bankAccount.writeAllAccountsToFile();
+                try {
+                    expenditureService.openAccount(account, name, initialBalance);
+                } catch (IllegalArgumentException | UncheckedIOException e) {
+                    System.out.println("❌ " + e.getMessage());
+                    return;
+                }
                 System.out.println("✅ Account created with balance: " + initialBalance);
             }
 
-            if (acc.balance < amount) {
-                System.out.println("⚠️ Warning: Insufficient funds. Proceed with negative balance? (yes/no): ");
-                String proceed = s.nextLine().trim().toLowerCase();
-                if (!proceed.equals("yes")) {
-                    System.out.println("❌ Expenditure not recorded.");
-                    return;
+            // The entry is on disk before it is reported as added
+            try {
+                try {
+                    expenditureService.addExpenditure(code, amount, date, phase, category, account, false);
+                } catch (expenditureService.InsufficientFundsException e) {
+                    System.out.println("⚠️ Warning: Insufficient funds. Proceed with negative balance? (yes/no): ");
+                    String proceed = s.nextLine().trim().toLowerCase();
+                    if (!proceed.equals("yes")) {
+                        System.out.println("❌ Expenditure not recorded.");
+                        return;
+                    }
+                    expenditureService.addExpenditure(code, amount, date, phase, category, account, true);
                 }
+            } catch (UncheckedIOException e) {
+                System.out.println("❌ " + e.getMessage());
+                System.out.println("⚠️ The expenditure is recorded but not yet on disk; saving is retried with the next change.");
+                return;
             }
 
-            acc.balance -= amount;
-            acc.history.addLast("Expenditure: -" + amount + " (" + code + ")");
-            bankAccount.writeAllAccountsToFile();
-
-            Expenditure e = new Expenditure(
-                    code,
-                    amount,
-                    date,
-                    capitalize(phase),
-                    capitalize(category),
-                    account
-            );
-
-            expenditureMap.put(code, e);
-            historyList.addLast(code);
-
-            saveToFile(e);
-
+            if (newCategory) System.out.println("📁 New category added to category.txt: " + category.trim());
             System.out.println("\n✅ Expenditure Added Successfully!\n");
 
-            expenditureMap.printAll();
-            historyList.printList();
+            printHistory();
 
             System.out.print("\n➕ Add another expenditure? (yes/no): ");
             String again = s.nextLine().trim().toLowerCase();
@@ -138,14 +164,77 @@ public class addExpenditure {
         }
     }
 
-    private static void saveToFile(Expenditure e) {
-        try (FileWriter writer = new FileWriter("Menu/expenditures.txt", true)) {
-            writer.write(e.toString() + "\n\n");
-        } catch (IOException ex) {
-            System.out.println("⚠️ Failed to write to file: " + ex.getMessage());
+    // Records the expenditure and debits the account; both reach disk with the next group commit.
+    // The account stays locked throughout, so two debits racing on it cannot both pass the balance
+    // check, and its debits and records are in the same order. The record and its debit are staged
+    // together under the records lock, where groupCommit takes its batch, so a batch never holds one
+    // without the other. The record goes in first so the debit's journal line can name its row.
+    // Returns false, changing nothing, when the balance is short and overdraft isn't allowed.
+    static boolean add(bankAccount.BankAccount acc, Expenditure e, boolean allowOverdraft) {
+        String reason = "Expenditure: -" + e.amount + " (" + e.code + ")";
+        ReentrantLock lock = bankAccount.lockFor(acc.id);
+        lock.lock();
+        try {
+            if (!allowOverdraft && acc.balance < e.amount) return false;
+            synchronized (expenditureService.lock) {
+                int row = saveToFile(e);
+                bankAccount.applyDelta(acc, -e.amount, row, reason);
+            }
+            return true;
+        } finally {
+            lock.unlock();
         }
     }
 
+    // Indexes a row by code; a repeated code replaces the record but keeps its history slot
+    static void record(expenditureStore store, int row) {
+        String code = store.code(row);
+        int previous = rowOf(code);
+        if (previous == -1) {
+            history.add(row);
+        } else {
+            expenditureIndex.remove(store, previous);
+        }
+
+        long key = longHashMap.numericKey(code);
+        if (key != longHashMap.NOT_NUMERIC) numericCodes.put(key, row);
+        else otherCodes.put(code, row);
+        expenditureIndex.add(store, row);
+    }
+
+    // Latest row recorded for the code, or -1
+    static int rowOf(String code) {
+        long key = longHashMap.numericKey(code);
+        if (key != longHashMap.NOT_NUMERIC) return numericCodes.getOrDefault(key, -1);
+
+        Integer row = otherCodes.get(code);
+        return row == null ? -1 : row;
+    }
+
+    static void clearIndex() {
+        numericCodes.clear();
+        otherCodes.clear();
+        history.clear();
+        expenditureIndex.clear();
+    }
+
+    // Appends to the ledger (on disk with the next group commit), indexes the new row and returns it
+    static int saveToFile(Expenditure e) {
+        int row = ledger.append(e);
+        record(ledger.store(), row);
+        return row;
+    }
+
+    // Every code with its latest record, then the codes in the order they were first recorded
+    private static void printHistory() {
+        StringBuilder order = new StringBuilder("Expenditure History: ");
+        expenditureService.listed().forEach(v -> {
+            System.out.println(v.code() + " => " + v);
+            order.append(v.code()).append(" -> ");
+        });
+        System.out.println(order.append("null"));
+    }
+
     private static String getValidInput(Scanner s, String prompt, java.util.function.Predicate<String> isValid) {
         int attempts = 0;
         while (attempts < 3) {
@@ -194,38 +283,19 @@ public class addExpenditure {
         return null;
     }
 
-    private static String capitalize(String str) {
+    static String capitalize(String str) {
         if (str == null || str.isEmpty()) return str;
+        if (isCapitalizedAscii(str)) return str; // the usual case once a category is in use: nothing to allocate
         return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
     }
 
-    // ✅ NEW METHOD: Adds category to both file and in-memory hashset
-    private static void addCategoryIfNew(String category) {
-        category = capitalize(category.trim());
-        java.io.File file = new java.io.File("Menu/category.txt");
-
-        try {
-            if (!file.exists()) file.createNewFile();
-
-            boolean exists = false;
-            try (java.util.Scanner reader = new java.util.Scanner(file)) {
-                while (reader.hasNextLine()) {
-                    if (reader.nextLine().trim().equalsIgnoreCase(category)) {
-                        exists = true;
-                        break;
-                    }
-                }
-            }
-
-            if (!exists) {
-                try (FileWriter writer = new FileWriter(file, true)) {
-                    writer.write(category + "\n");
-                }
-                Menu.manageCategories.categorySet.add(category); // ✅ Add to memory
-            }
-
-        } catch (IOException e) {
-            System.out.println("⚠️ Failed to update category.txt: " + e.getMessage());
+    private static boolean isCapitalizedAscii(String str) {
+        char first = str.charAt(0);
+        if (first >= 0x80 || (first >= 'a' && first <= 'z')) return false;
+        for (int i = 1; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) return false;
         }
+        return true;
     }
 }
@@ -1,24 +1,49 @@
 package Menu;
 
+import DSA.arrayList;
+import DSA.concurrenthashmap;
 import DSA.hashmap;
-import DSA.priorityqueue;
+import DSA.indexedpriorityqueue;
 import DSA.linkedList;
+import DSA.longHashMap;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Scanner;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class bankAccount {
 
-    static hashmap<String, BankAccount> accounts = new hashmap<>();
-    static priorityqueue<BankAccount> queue = new priorityqueue<>();
+    // Accounts by id, through find() and register(). Ids that are plain numbers, the usual kind, are
+    // kept as longs in an open-addressing table that lookups read without a lock and without hashing a
+    // String. New accounts go into it in place, which only ever fills an empty slot; when it is full
+    // a bigger copy is published instead, so a table a reader holds is never rehashed under it. Any
+    // other id falls back to the string map.
+    private static volatile longHashMap<BankAccount> numbered = new longHashMap<>();
+    private static final concurrenthashmap<String, BankAccount> named = new concurrenthashmap<>();
+    // Held by every change to numbered, so there is one writer at a time
+    private static final Object registering = new Object();
+    // Each account's balance and history are guarded by one of these, picked by id, along with the
+    // stripe's share of the lowest-balance heap. Changes to different accounts run in parallel;
+    // changes to one account happen one at a time.
+    static final int LOCK_STRIPES = 64;
+    private static final Stripe[] stripes = new Stripe[LOCK_STRIPES];
     static final String FILE_NAME = "Menu/accounts.txt";
+    // Snapshot header recording the last journal entry already folded into the balances
+    static final String SNAPSHOT_HEADER = "#journal=";
+    // Journal entries allowed to pile up before they are compacted into a new snapshot
+    static final int COMPACT_EVERY = 500;
 
     static {
+        for (int i = 0; i < LOCK_STRIPES; i++) stripes[i] = new Stripe();
         loadAccountsFromFile();
     }
 
     public static void account() {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = console.in;
         while (true) {
             System.out.println("\n==== Bank Account Menu ====");
             System.out.println("1. List Accounts");
@@ -50,17 +75,104 @@ public class bankAccount {
         }
     }
 
+    static BankAccount find(String id) {
+        long key = longHashMap.numericKey(id);
+        return key == longHashMap.NOT_NUMERIC ? named.get(id) : numbered.get(key);
+    }
+
+    // Returns the account already under that id, or null when this one was added. A lookup racing
+    // the put may miss the account being added, but no other.
+    static BankAccount register(BankAccount acc) {
+        long key = longHashMap.numericKey(acc.id);
+        if (key == longHashMap.NOT_NUMERIC) return named.putIfAbsent(acc.id, acc);
+
+        synchronized (registering) {
+            longHashMap<BankAccount> table = numbered;
+            BankAccount existing = table.get(key);
+            if (existing != null) return existing;
+            if (!table.hasRoom()) {
+                // Doubled, so the copies cost O(1) per account over a long import
+                longHashMap<BankAccount> grown = new longHashMap<>(table.size() * 2);
+                table.forEach(grown::put);
+                table = grown;
+            }
+            table.put(key, acc);
+            numbered = table;
+            return null;
+        }
+    }
+
+    // Undoes register(), for an account that could not be saved
+    static void unregister(BankAccount acc) {
+        long key = longHashMap.numericKey(acc.id);
+        if (key == longHashMap.NOT_NUMERIC) {
+            named.remove(acc.id);
+        } else {
+            synchronized (registering) {
+                // A removal shifts other keys back, which a lock-free reader could miss, so it goes to a copy
+                longHashMap<BankAccount> next = new longHashMap<>(numbered);
+                next.remove(key);
+                numbered = next;
+            }
+        }
+        Stripe stripe = stripeFor(acc.id);
+        stripe.lock();
+        try {
+            stripe.queue.remove(acc.id);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // Adds a newly registered account to the lowest-balance heap
+    static void track(BankAccount acc) {
+        Stripe stripe = stripeFor(acc.id);
+        stripe.lock();
+        try {
+            stripe.queue.add(acc.id, acc);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // The k lowest balances, lowest first. Each stripe's heap is read under its own lock, one at a
+    // time, so like totalBalance this is not a snapshot across accounts.
+    static arrayList<BankAccount> lowest(int k) {
+        arrayList<BankAccount> candidates = new arrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                arrayList<BankAccount> some = stripe.queue.lowest(k);
+                for (int i = 0; i < some.size(); i++) candidates.add(some.get(i));
+            } finally {
+                stripe.unlock();
+            }
+        }
+        // Balances can change while this sorts, so each one is read once
+        candidates.sortByDoubleKey(acc -> acc.balance);
+        arrayList<BankAccount> result = new arrayList<>();
+        for (int i = 0; i < candidates.size() && i < k; i++) result.add(candidates.get(i));
+        return result;
+    }
+
+    // Numbered accounts first, then the rest; sees the accounts registered before the call
+    static void forEachAccount(Consumer<BankAccount> action) {
+        numbered.forEach((key, acc) -> action.accept(acc));
+        for (hashmap.Node<String, BankAccount> node : named) action.accept(node.value);
+    }
+
     static void listAccounts() {
         System.out.println("\n=== Account List ===");
-        accounts.printAll();
+        arrayList<BankAccount> list = expenditureService.accounts();
+        for (int i = 0; i < list.size(); i++) System.out.println(list.get(i).id + " => " + list.get(i));
     }
 
     static void addAccount() {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = console.in;
         System.out.print("Enter Account ID: ");
         String id = scanner.nextLine();
 
-        if (accounts.get(id) != null) {
+        if (expenditureService.account(id) != null) {
             System.out.println("Account already exists.");
             return;
         }
@@ -77,20 +189,24 @@ public class bankAccount {
             return;
         }
 
-        BankAccount acc = new BankAccount(id, name, balance);
-        accounts.put(id, acc);
-        queue.add(acc);
-        writeAllAccountsToFile();
-
+        try {
+            expenditureService.openAccount(id, name, balance);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid account: " + e.getMessage());
+            return;
+        } catch (UncheckedIOException e) {
+            System.out.println("Account not added: " + e.getMessage());
+            return;
+        }
         System.out.println("Account added.");
     }
 
     static void topUp() {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = console.in;
         System.out.print("Enter Account ID: ");
         String id = scanner.nextLine();
 
-        BankAccount acc = accounts.get(id);
+        BankAccount acc = expenditureService.account(id);
         if (acc == null) {
             System.out.println("Account not found.");
             return;
@@ -105,62 +221,267 @@ public class bankAccount {
             return;
         }
 
-        acc.balance += amount;
-        acc.history.addLast("Top-up: +" + amount);
-        writeAllAccountsToFile();
+        double newBalance;
+        try {
+            newBalance = expenditureService.topUp(id, amount);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid amount.");
+            return;
+        } catch (UncheckedIOException e) {
+            System.out.println(e.getMessage() + ". The top-up is applied but not yet on disk; saving is retried with the next change.");
+            return;
+        }
 
-        System.out.println("Top-up successful. New balance: " + acc.balance);
+        System.out.println("Top-up successful. New balance: " + newBalance);
         System.out.print("History: ");
         acc.history.printList();
     }
 
     static void showLowestBalance() {
-        BankAccount lowest = queue.peek();
-        if (lowest == null) {
+        if (numbered.isEmpty() && named.isEmpty()) {
             System.out.println("No accounts.");
             return;
         }
 
-        System.out.println("Lowest balance:");
-        System.out.println("ID: " + lowest.id + ", Name: " + lowest.name + ", Balance: " + lowest.balance);
+        Scanner scanner = console.in;
+        System.out.print("How many accounts? (default 1): ");
+        int k = 1;
+        String input = scanner.nextLine().trim();
+        if (!input.isEmpty()) {
+            try {
+                k = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid number.");
+                return;
+            }
+        }
+
+        arrayList<BankAccount> lowest = expenditureService.lowestBalances(k);
+        System.out.println(lowest.size() == 1 ? "Lowest balance:" : "Lowest " + lowest.size() + " balances:");
+        for (int i = 0; i < lowest.size(); i++) {
+            BankAccount acc = lowest.get(i);
+            System.out.println("ID: " + acc.id + ", Name: " + acc.name + ", Balance: " + acc.balance);
+        }
+    }
+
+    static ReentrantLock lockFor(String id) {
+        return stripeFor(id);
+    }
+
+    private static Stripe stripeFor(String id) {
+        int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static final class Stripe extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        // Lowest balance first among the stripe's accounts; re-sifted on every balance change through applyDelta
+        final indexedpriorityqueue<String, BankAccount> queue = new indexedpriorityqueue<>();
+    }
+
+    // Every balance change goes through here, under the account's lock: memory first, then the
+    // journal (on the next group commit). Returns the new balance.
+    static double applyDelta(BankAccount acc, double delta, String reason) {
+        return applyDelta(acc, delta, -1, reason);
+    }
+
+    // row is the ledger row an expenditure's debit pays for, journaled with it, or -1
+    static double applyDelta(BankAccount acc, double delta, int row, String reason) {
+        Stripe stripe = stripeFor(acc.id);
+        stripe.lock();
+        try {
+            // The heap compares live balances; it only holds the stripe's accounts, whose balances
+            // change under this same lock, so the change and the re-sift can't interleave with another's
+            acc.balance += delta;
+            if (delta < 0) stripe.queue.decreaseKey(acc.id);
+            else stripe.queue.increaseKey(acc.id);
+            acc.history.addLast(reason);
+            accountJournal.append(acc.id, delta, row, reason);
+            groupCommit.staged();
+            return acc.balance;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // Holds every stripe, in order, so no balance changes while the action runs
+    static void withAllAccountsLocked(Runnable action) {
+        for (ReentrantLock stripe : stripes) stripe.lock();
+        try {
+            action.run();
+        } finally {
+            for (int i = LOCK_STRIPES - 1; i >= 0; i--) stripes[i].unlock();
+        }
     }
 
     static void loadAccountsFromFile() {
+        long snapshotSeq = 0;
+        long[] ledgerMark = null;
+        // Built up here and published once, instead of copied per account
+        longHashMap<BankAccount> loaded = new longHashMap<>();
         File file = new File(FILE_NAME);
-        if (!file.exists()) return;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(FILE_NAME))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                // Format: id,name,balance
-                String[] parts = line.split(",");
-                if (parts.length != 3) continue;
-
-                String id = parts[0];
-                String name = parts[1];
-                double balance = Double.parseDouble(parts[2]);
-
-                BankAccount acc = new BankAccount(id, name, balance);
-                accounts.put(id, acc);
-                queue.add(acc);
+
+        if (file.exists()) {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.startsWith(SNAPSHOT_HEADER)) {
+                        snapshotSeq = Long.parseLong(line.substring(SNAPSHOT_HEADER.length()).trim());
+                        continue;
+                    }
+                    if (line.startsWith(accountJournal.LEDGER_MARK)) {
+                        ledgerMark = accountJournal.parseMark(line);
+                        continue;
+                    }
+
+                    // Format: id,name,balance
+                    String[] parts = line.split(",");
+                    if (parts.length != 3) continue;
+
+                    String id = parts[0];
+                    String name = parts[1];
+                    double balance = Double.parseDouble(parts[2]);
+
+                    BankAccount acc = new BankAccount(id, name, balance);
+                    long key = longHashMap.numericKey(id);
+                    if (key == longHashMap.NOT_NUMERIC) named.put(id, acc);
+                    else loaded.put(key, acc);
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("Error loading file: " + e.getMessage());
             }
-        } catch (IOException | NumberFormatException e) {
-            System.out.println("Error loading file: " + e.getMessage());
         }
+
+        numbered = loaded;
+
+        // Changes made after the snapshot was taken. Debits that name a row are kept by row until a
+        // refund of the same row cancels them, so they can be checked against the ledger below.
+        longHashMap<JournaledDebit> debits = new longHashMap<>();
+        long[] journalMark = accountJournal.replay(snapshotSeq, (id, delta, row, reason) -> {
+            BankAccount acc = find(id);
+            if (acc == null) {
+                System.out.println("Journal entry for unknown account skipped: " + id);
+                return;
+            }
+            acc.balance += delta;
+            acc.history.addLast(reason);
+            JournaledDebit.track(debits, acc, delta, row, reason);
+        });
+
+        forEachAccount(bankAccount::track);
+
+        if (journalMark != null && (ledgerMark == null || journalMark[1] > ledgerMark[1])) ledgerMark = journalMark;
+        refundUnsaved(debits, ledgerMark == null ? 0 : ledgerMark[1]);
     }
 
-    static void writeAllAccountsToFile() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE_NAME))) {
-            for (int i = 0; i < 16; i++) {
-                DSA.hashmap.Node<String, BankAccount> node = accounts.buckets[i];
-                while (node != null) {
-                    bw.write(((hashmap.Node<String, BankAccount>) node).value.toFileString());
+    // A debit journaled under a row past the last ledger mark may belong to a record that never
+    // reached the ledger: a commit writes the journal first, and the program can stop before the
+    // ledger follows. Those whose row doesn't hold the record they paid for are refunded and saved in
+    // a snapshot. Ledger rows are never debited here, so rows added outside the program stay free.
+    // A record whose row moved because the file was edited outside the program while it ran is
+    // taken as unsaved.
+    private static void refundUnsaved(longHashMap<JournaledDebit> debits, long markedRows) {
+        if (!JournaledDebit.anyPast(debits, markedRows)) return;
+
+        arrayList<JournaledDebit> refunds;
+        synchronized (expenditureService.lock) {
+            refunds = JournaledDebit.unsaved(debits, markedRows, ledger.records());
+        }
+        if (refunds.size() == 0) return;
+
+        for (int i = 0; i < refunds.size(); i++) {
+            JournaledDebit d = refunds.get(i);
+            applyDelta(d.account, d.amount, d.row, "Refund: +" + d.amount + " (not saved: " + d.reason + ")");
+        }
+        System.out.println("♻️ Refunded " + refunds.size() + " debits for expenditures that were never saved.");
+        try {
+            writeAllAccountsToFile();
+        } catch (IOException e) {
+            System.out.println("⚠️ Error writing file: " + e.getMessage());
+        }
+    }
+
+    // An expenditure's debit as replayed from the journal, with the ledger row it paid for
+    static class JournaledDebit {
+        final BankAccount account;
+        final double amount;
+        final int row;
+        final String reason;
+
+        JournaledDebit(BankAccount account, double amount, int row, String reason) {
+            this.account = account;
+            this.amount = amount;
+            this.row = row;
+            this.reason = reason;
+        }
+
+        // Keeps a replayed entry's debit by its row; a credit to the same row is its refund and cancels it
+        static void track(longHashMap<JournaledDebit> debits, BankAccount acc, double delta, int row, String reason) {
+            if (row < 0) return;
+            if (delta < 0) debits.put(row, new JournaledDebit(acc, -delta, row, reason));
+            else debits.remove(row);
+        }
+
+        static boolean anyPast(longHashMap<JournaledDebit> debits, long markedRows) {
+            boolean[] any = new boolean[1];
+            debits.forEach((row, debit) -> any[0] |= row >= markedRows);
+            return any[0];
+        }
+
+        // Debits past the mark whose row doesn't hold a record for the same account and amount, by row
+        static arrayList<JournaledDebit> unsaved(longHashMap<JournaledDebit> debits, long markedRows, expenditureStore records) {
+            arrayList<JournaledDebit> unsaved = new arrayList<>();
+            debits.forEach((row, d) -> {
+                if (row < markedRows) return;
+                boolean saved = row < records.size() && d.account.id.equals(records.account(d.row)) && records.amount(d.row) == d.amount;
+                if (!saved) unsaved.add(d);
+            });
+            unsaved.sort((a, b) -> Integer.compare(a.row, b.row));
+            return unsaved;
+        }
+    }
+
+    // Compaction: writes a full snapshot to a temp file, swaps it in, then empties the journal.
+    // The balances and the journal position are read with every account locked, so they agree;
+    // the file itself is written after the locks are released.
+    // The journal lines and records behind those balances are taken in the same step and written
+    // first, in commit order, so the snapshot's ledger mark covers them and no record is on disk
+    // before its debit. Errors are thrown; the journal is only emptied on success.
+    static void writeAllAccountsToFile() throws IOException {
+        synchronized (groupCommit.ioLock) {
+            arrayList<String> lines = new arrayList<>();
+            long[] seq = new long[1];
+            int[] journalLength = new int[1];
+            withAllAccountsLocked(() -> {
+                seq[0] = accountJournal.lastSeq();
+                journalLength[0] = accountJournal.buffered();
+                ledger.take();
+                forEachAccount(acc -> lines.add(acc.toFileString()));
+            });
+            groupCommit.write(journalLength[0]);
+            String mark = ledger.mark();
+
+            File tmp = new File(FILE_NAME + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                bw.write(SNAPSHOT_HEADER + seq[0]);
+                bw.newLine();
+                if (mark != null) {
+                    bw.write(mark);
                     bw.newLine();
-                    node = ((hashmap.Node<String, BankAccount>) node).next;
                 }
+                for (int i = 0; i < lines.size(); i++) {
+                    bw.write(lines.get(i));
+                    bw.newLine();
+                }
+                bw.flush();
+                out.getFD().sync();
             }
-        } catch (IOException e) {
-            System.out.println("Error writing file: " + e.getMessage());
+
+            Files.move(tmp.toPath(), new File(FILE_NAME).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            accountJournal.truncate(seq[0]);
         }
     }
 
@@ -168,7 +489,7 @@ public class bankAccount {
     public static class BankAccount implements Comparable<BankAccount> {
         String id;
         String name;
-        double balance;
+        volatile double balance; // changed under lockFor(id), read without it
         linkedList history = new linkedList();
 
         public BankAccount(String id, String name, double balance) {
@@ -177,6 +498,18 @@ public class bankAccount {
             this.balance = balance;
         }
 
+        public String id() {
+            return id;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public double balance() {
+            return balance;
+        }
+
         @Override
         public int compareTo(BankAccount o) {
             return Double.compare(this.balance, o.balance);
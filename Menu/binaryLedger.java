@@ -0,0 +1,269 @@
+package Menu;
+
+import DSA.arrayList;
+import DSA.hashmap;
+import DSA.intList;
+import Menu.addExpenditure.Expenditure;
+
+import java.io.*;
+
+/*
+ * Binary layout of expenditures.bin:
+ *
+ *   header:     int MAGIC, int FORMAT_VERSION
+ *   then any mix of
+ *     'D' entry: int id, UTF string              (defines a dictionary string)
+ *     'E' entry: UTF code, double amount, int epochDay,
+ *                int phase, int category, int account   (27 bytes plus the code)
+ *     'R' entry: as 'E' with the code as an int dictionary id (version 1 files only)
+ *
+ * Phase, category and account are dictionary ids (-1 for null); the code is
+ * unique to almost every record, so it is written in place. A string is always
+ * defined before the first record that uses it, so the file can be appended to
+ * and read back in a single pass.
+ */
+public class binaryLedger {
+
+    static final String FILE_NAME = "Menu/expenditures.bin";
+
+    private static final int MAGIC = 0x4E4B5741; // "NKWA"
+    private static final int FORMAT_VERSION = 2;
+    private static final byte DICTIONARY_ENTRY = 'D';
+    private static final byte RECORD_ENTRY = 'E';
+    private static final byte DICTIONARY_CODE_RECORD_ENTRY = 'R';
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int UNRESOLVED = -2;
+
+    // The phase, category and account strings a file defines, by id
+    private static final class Dictionary {
+        final hashmap<String, Integer> ids = new hashmap<>();
+        // Ids run from 0 to this; in a version 1 file some of them are codes, which aren't kept
+        int size;
+    }
+
+    // Dictionary of the file last read or written; append extends it once a batch is on disk
+    private static Dictionary dictionary = new Dictionary();
+
+    static void read(File file, expenditureStore out) throws IOException {
+        dictionary = new Dictionary();
+        if (!file.exists() || file.length() == 0) return;
+        Dictionary loaded = new Dictionary();
+        arrayList<String> strings = new arrayList<>();
+        // File dictionary id -> symbols id, looked up the first time a record uses it as a phase,
+        // category or account (UNRESOLVED until then; codes never are)
+        intList symbolOf = new intList();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            checkHeader(in);
+
+            while (true) {
+                int tag = in.read();
+                if (tag == -1) break;
+
+                if (tag == DICTIONARY_ENTRY) {
+                    int id = in.readInt();
+                    String value = in.readUTF();
+                    if (id != strings.size())
+                        throw new IOException("Dictionary id out of order: " + id);
+                    strings.add(value);
+                    symbolOf.add(UNRESOLVED);
+                } else if (tag == RECORD_ENTRY || tag == DICTIONARY_CODE_RECORD_ENTRY) {
+                    String code = tag == RECORD_ENTRY ? in.readUTF() : lookup(strings, in.readInt());
+                    double amount = in.readDouble();
+                    int epochDay = in.readInt();
+                    int phase = symbol(strings, symbolOf, in.readInt());
+                    int category = symbol(strings, symbolOf, in.readInt());
+                    int account = symbol(strings, symbolOf, in.readInt());
+                    out.add(code, amount, epochDay, phase, category, account);
+                } else {
+                    throw new IOException("Corrupt entry tag: " + tag);
+                }
+            }
+        }
+
+        // Only the strings records use as phase, category or account are kept for later appends
+        for (int id = 0; id < strings.size(); id++) {
+            if (symbolOf.get(id) != UNRESOLVED) loaded.ids.put(strings.get(id), id);
+        }
+        loaded.size = strings.size();
+        dictionary = loaded;
+    }
+
+    // Rebuilds the dictionary without reading any record into a store, for a start that reopened the
+    // mapped store instead of calling read(); appends would otherwise define strings from id 0 again.
+    // Records are skipped over, apart from the three ids that say which strings they use.
+    static void readDictionary(File file) throws IOException {
+        dictionary = new Dictionary();
+        if (!file.exists() || file.length() == 0) return;
+        Dictionary loaded = new Dictionary();
+        arrayList<String> strings = new arrayList<>();
+        intList used = new intList();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            checkHeader(in);
+
+            while (true) {
+                int tag = in.read();
+                if (tag == -1) break;
+
+                if (tag == DICTIONARY_ENTRY) {
+                    int id = in.readInt();
+                    String value = in.readUTF();
+                    if (id != strings.size())
+                        throw new IOException("Dictionary id out of order: " + id);
+                    strings.add(value);
+                    used.add(0);
+                } else if (tag == RECORD_ENTRY || tag == DICTIONARY_CODE_RECORD_ENTRY) {
+                    in.skipNBytes(tag == RECORD_ENTRY ? in.readUnsignedShort() : 4); // the code
+                    in.skipNBytes(12); // amount and epoch day
+                    for (int field = 0; field < 3; field++) {
+                        int id = in.readInt();
+                        if (id == -1) continue;
+                        lookup(strings, id);
+                        used.set(id, 1);
+                    }
+                } else {
+                    throw new IOException("Corrupt entry tag: " + tag);
+                }
+            }
+        }
+
+        for (int id = 0; id < strings.size(); id++) {
+            if (used.get(id) == 1) loaded.ids.put(strings.get(id), id);
+        }
+        loaded.size = strings.size();
+        dictionary = loaded;
+    }
+
+    // Appends a batch of records and syncs once. The strings it defines join the dictionary only
+    // once the batch is on disk; on failure the file is cut back to its length before the batch,
+    // so a retry never refers to a definition that didn't make it or lands after a torn entry.
+    static void append(File file, arrayList<Expenditure> batch) throws IOException {
+        long length = file.exists() ? file.length() : 0;
+        boolean fresh = length == 0;
+        Dictionary base = fresh ? new Dictionary() : dictionary;
+        hashmap<String, Integer> added = new hashmap<>();
+
+        FileOutputStream fos = new FileOutputStream(file, true);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))) {
+                if (fresh) writeHeader(out);
+                for (int i = 0; i < batch.size(); i++) {
+                    Expenditure e = batch.get(i);
+                    writeRecord(out, base, added, e.code, e.amount, (int) e.date.toEpochDay(), e.phase, e.category, e.accountId);
+                }
+                out.flush();
+                fos.getFD().sync();
+            }
+        } catch (IOException e) {
+            // Truncated after the stream is closed, so nothing still buffered is written past the cut
+            ledger.truncate(file, length, e);
+            throw e;
+        }
+
+        for (hashmap.Node<String, Integer> n : added) base.ids.put(n.key, n.value);
+        base.size += added.size();
+        dictionary = base;
+    }
+
+    // One-shot conversion of the text ledger; the target file is overwritten and synced
+    static int convert(File textFile, File binaryFile) throws IOException {
+        expenditureStore records = new expenditureStore();
+        mappedLedgerReader.read(textFile, records);
+
+        Dictionary converted = new Dictionary();
+        hashmap<String, Integer> added = new hashmap<>();
+        FileOutputStream fos = new FileOutputStream(binaryFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))) {
+            writeHeader(out);
+            for (int row = 0; row < records.size(); row++) {
+                writeRecord(out, converted, added, records.code(row), records.amount(row), records.epochDay(row),
+                        records.phase(row), records.category(row), records.account(row));
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+
+        for (hashmap.Node<String, Integer> n : added) converted.ids.put(n.key, n.value);
+        converted.size += added.size();
+        dictionary = converted;
+        return records.size();
+    }
+
+    // Usage: java Menu.binaryLedger [text file] [binary file]
+    public static void main(String[] args) {
+        File textFile = new File(args.length > 0 ? args[0] : ledger.TEXT_FILE_NAME);
+        File binaryFile = new File(args.length > 1 ? args[1] : FILE_NAME);
+
+        try {
+            int count = convert(textFile, binaryFile);
+            System.out.println("✅ Converted " + count + " expenditures to " + binaryFile.getPath());
+        } catch (IOException e) {
+            System.out.println("❌ Conversion failed: " + e.getMessage());
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+    }
+
+    private static void checkHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not an expenditure ledger file.");
+        int version = in.readInt();
+        if (version < 1 || version > FORMAT_VERSION)
+            throw new IOException("Unsupported ledger format version: " + version);
+    }
+
+    private static void writeRecord(DataOutputStream out, Dictionary dict, hashmap<String, Integer> added,
+                                    String code, double amount, int epochDay,
+                                    String phase, String category, String account) throws IOException {
+        int phaseId = intern(out, dict, added, phase);
+        int categoryId = intern(out, dict, added, category);
+        int accountId = intern(out, dict, added, account);
+
+        out.writeByte(RECORD_ENTRY);
+        out.writeUTF(code);
+        out.writeDouble(amount);
+        out.writeInt(epochDay);
+        out.writeInt(phaseId);
+        out.writeInt(categoryId);
+        out.writeInt(accountId);
+    }
+
+    // Returns the dictionary id for a string, writing a definition entry the first time it is seen.
+    // New ids go into added, not the dictionary, until the caller knows they reached the file.
+    private static int intern(DataOutputStream out, Dictionary dict, hashmap<String, Integer> added, String value) throws IOException {
+        if (value == null) return -1;
+
+        Integer id = dict.ids.get(value);
+        if (id == null) id = added.get(value);
+        if (id != null) return id;
+
+        id = dict.size + added.size();
+        added.put(value, id);
+
+        out.writeByte(DICTIONARY_ENTRY);
+        out.writeInt(id);
+        out.writeUTF(value);
+        return id;
+    }
+
+    private static int symbol(arrayList<String> strings, intList symbolOf, int id) throws IOException {
+        if (id == -1) return -1;
+        int symbol = id >= 0 && id < symbolOf.size() ? symbolOf.get(id) : UNRESOLVED;
+        if (symbol == UNRESOLVED) {
+            symbol = symbols.id(lookup(strings, id));
+            symbolOf.set(id, symbol);
+        }
+        return symbol;
+    }
+
+    private static String lookup(arrayList<String> strings, int id) throws IOException {
+        if (id == -1) return null;
+        if (id < 0 || id >= strings.size())
+            throw new IOException("Unknown dictionary id: " + id);
+        return strings.get(id);
+    }
+}
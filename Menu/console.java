@@ -0,0 +1,12 @@
+package Menu;
+
+import java.util.Scanner;
+
+// The one reader of System.in: separate Scanners each buffer their own chunk of the input,
+// so lines typed (or piped) ahead would be lost when the next menu opened its own
+public class console {
+    public static final Scanner in = new Scanner(System.in);
+
+    private console() {
+    }
+}
@@ -0,0 +1,111 @@
+package Menu;
+
+import Menu.addExpenditure.Expenditure;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// Non-interactive bulk import of expenditures in the Expenditure.toCSV() format:
+// code,amount,date,phase,category,accountId
+public class csvImport {
+
+    // Rejected rows printed before the rest are only counted
+    static final int MAX_REPORTED_ERRORS = 20;
+
+    static class Result {
+        int imported;
+        int rejected;
+        int overdrawn;
+    }
+
+    // Usage: java Menu.csvImport [--allow-overdraft] <file.csv>
+    public static void main(String[] args) {
+        boolean allowOverdraft = args.length == 2 && args[0].equals("--allow-overdraft");
+        if (args.length != 1 && !allowOverdraft) {
+            System.out.println("Usage: java Menu.csvImport [--allow-overdraft] <file.csv>");
+            return;
+        }
+
+        try {
+            Result r = importFile(args[args.length - 1], allowOverdraft);
+            System.out.println("✅ Imported " + r.imported + " expenditures, rejected " + r.rejected + ".");
+            if (r.overdrawn > 0) {
+                System.out.println("⚠️ " + r.overdrawn + " expenditures left their account with a negative balance.");
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("❌ Import failed: " + e.getMessage());
+        }
+    }
+
+    // Streams the file line by line. Each row goes through expenditureService.stage, so it is
+    // checked, debited and recorded under its account's lock like any other; the group commits
+    // share the fsyncs, and whatever is still staged is committed at the end.
+    static Result importFile(String path, boolean allowOverdraft) throws IOException {
+        Result result = new Result();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || (lineNo == 1 && line.toLowerCase().startsWith("code,"))) continue;
+
+                String error;
+                try {
+                    error = importLine(line, allowOverdraft, result);
+                } catch (NumberFormatException e) {
+                    error = "invalid amount";
+                } catch (DateTimeParseException e) {
+                    error = "invalid date, use YYYY-MM-DD";
+                }
+
+                if (error != null) {
+                    if (result.rejected++ < MAX_REPORTED_ERRORS) {
+                        System.out.println("❌ Line " + lineNo + " rejected: " + error);
+                    }
+                    continue;
+                }
+                result.imported++;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Rows staged before the failure are still committed, but the error reported is the one that
+            // stopped the import; a commit failure on top of it is attached, not put in its place
+            try {
+                groupCommit.commit();
+            } catch (RuntimeException commitFailure) {
+                e.addSuppressed(commitFailure);
+            }
+            throw e;
+        }
+        groupCommit.commit();
+        return result;
+    }
+
+    // Returns an error message, or null once the row is staged
+    private static String importLine(String line, boolean allowOverdraft, Result result) {
+        String[] f = line.split(",", -1);
+        if (f.length != 6) return "expected 6 fields, found " + f.length;
+
+        double amount = Double.parseDouble(f[1].trim());
+        LocalDate date = LocalDate.parse(f[2].trim());
+
+        try {
+            Expenditure e = expenditureService.stage(f[0], amount, date, f[3], f[4], f[5], allowOverdraft);
+            bankAccount.BankAccount acc = bankAccount.find(e.accountId());
+            if (acc.balance < 0) result.overdrawn++;
+        } catch (expenditureService.InsufficientFundsException e) {
+            return "insufficient funds: " + e.getMessage();
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+}
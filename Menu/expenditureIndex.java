@@ -0,0 +1,114 @@
+package Menu;
+
+import DSA.intList;
+import DSA.longHashMap;
+import DSA.myTreeMap;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Secondary indexes over the latest row of each code, kept in step by addExpenditure.record()
+class expenditureIndex {
+
+    // category's case-insensitive symbols group -> rows, in insertion order
+    private static final longHashMap<Rows> byCategory = new longHashMap<>();
+    // account's symbols id -> rows, in insertion order
+    private static final longHashMap<Rows> byAccount = new longHashMap<>();
+    // epoch day -> rows, plus the days in order for range scans. A day whose rows were all replaced
+    // stays in the tree (there is no removal from it) and is skipped, having no rows in byDay.
+    private static final longHashMap<Rows> byDay = new longHashMap<>();
+    private static final myTreeMap<Integer> days = new myTreeMap<>();
+    // Rows replaced by a later row of the same code. They are only marked here, and each list drops
+    // its marked rows once they make up half of it, so a removal costs O(1) amortized
+    private static boolean[] removed = new boolean[1024];
+
+    // Rows under one key, oldest first, marked ones included
+    private static final class Rows {
+        intList rows = new intList();
+        int dead;
+    }
+
+    static void add(expenditureStore store, int row) {
+        // Records without a category or account (id -1) are left out of that index
+        int category = symbols.group(store.categoryId(row));
+        int account = store.accountId(row);
+        if (category != -1) addTo(byCategory, category, row);
+        if (account != -1) addTo(byAccount, account, row);
+
+        int day = store.epochDay(row);
+        if (byDay.get(day) == null) days.put(day, 0);
+        addTo(byDay, day, row);
+    }
+
+    static void remove(expenditureStore store, int row) {
+        if (row >= removed.length) removed = Arrays.copyOf(removed, Math.max(removed.length * 2, row + 1));
+        removed[row] = true;
+
+        int category = symbols.group(store.categoryId(row));
+        int account = store.accountId(row);
+        if (category != -1) removeFrom(byCategory, category);
+        if (account != -1) removeFrom(byAccount, account);
+        removeFrom(byDay, store.epochDay(row));
+    }
+
+    static void clear() {
+        byCategory.clear();
+        byAccount.clear();
+        byDay.clear();
+        days.clear();
+        removed = new boolean[1024];
+    }
+
+    static intList byCategory(String category) {
+        intList result = new intList();
+        copyTo(byCategory.get(symbols.findGroup(category.trim())), result);
+        return result;
+    }
+
+    static intList byAccount(String accountId) {
+        intList result = new intList();
+        copyTo(byAccount.get(symbols.find(accountId.trim())), result);
+        return result;
+    }
+
+    // Rows dated within [start, end], oldest first
+    static intList byDateRange(LocalDate start, LocalDate end) {
+        intList result = new intList();
+        days.forEachInRange((int) start.toEpochDay(), (int) end.toEpochDay(), (day, unused) -> copyTo(byDay.get(day), result));
+        return result;
+    }
+
+    private static void addTo(longHashMap<Rows> index, int key, int row) {
+        Rows rows = index.get(key);
+        if (rows == null) {
+            rows = new Rows();
+            index.put(key, rows);
+        }
+        rows.rows.add(row);
+    }
+
+    // Counts one more marked row under the key, dropping the key when none are left
+    private static void removeFrom(longHashMap<Rows> index, int key) {
+        Rows rows = index.get(key);
+        if (rows == null) return;
+
+        rows.dead++;
+        if (rows.dead == rows.rows.size()) {
+            index.remove(key);
+        } else if (rows.dead * 2 > rows.rows.size()) {
+            intList live = new intList(rows.rows.size() - rows.dead);
+            copyTo(rows, live);
+            rows.rows = live;
+            rows.dead = 0;
+        }
+    }
+
+    // The unmarked rows, into a list the caller can keep after the lock is released
+    private static void copyTo(Rows rows, intList out) {
+        if (rows == null) return;
+        for (int i = 0; i < rows.rows.size(); i++) {
+            int row = rows.rows.get(i);
+            if (row >= removed.length || !removed[row]) out.add(row);
+        }
+    }
+}
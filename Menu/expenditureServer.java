@@ -0,0 +1,358 @@
+package Menu;
+
+import DSA.arrayList;
+import DSA.hashmap;
+import DSA.myTreeMap;
+import Menu.addExpenditure.Expenditure;
+import Menu.bankAccount.BankAccount;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP/JSON front end over expenditureService, so several site offices can post at once.
+//
+//   POST /expenditures                     {"code","amount","date","phase","category","accountId","allowOverdraft"}
+//   GET  /expenditures[?category=|account=|from=&to=|sort=category|date|amount|account]
+//   GET  /expenditures/{code}
+//   GET  /accounts, GET /accounts/{id}, POST /accounts/{id}/top-up {"amount"}
+//   GET  /reports/monthly|category|phase|account|forecast
+//   GET  /reports/burn-rate?from=&to=&unit=day|week|month
+//
+// Usage: java Menu.expenditureServer [port] [host]   (default 8080 on 127.0.0.1)
+public class expenditureServer {
+
+    static final int DEFAULT_PORT = 8080;
+    static final String DEFAULT_HOST = "127.0.0.1";
+    // Connections the OS may queue while every handler is busy
+    static final int BACKLOG = 1024;
+    static final int MAX_BODY_BYTES = 64 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String host = args.length > 1 ? args[1] : DEFAULT_HOST;
+
+        HttpServer server = start(host, port);
+        System.out.println("🌐 Serving expenditures on http://" + host + ":" + server.getAddress().getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+    }
+
+    static HttpServer start(String host, int port) throws IOException {
+        // Headers and body go out as separate writes; with Nagle on, each response waits out the
+        // client's delayed ACK (~40 ms). Must be set before the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), BACKLOG);
+        route(server, "expenditures", expenditureServer::expenditures);
+        route(server, "accounts", expenditureServer::accounts);
+        route(server, "reports", expenditureServer::reports);
+        server.setExecutor(threadPerRequest());
+        server.start();
+        return server;
+    }
+
+    // One virtual thread per request on Java 21+, where the executor exists; otherwise a cached pool,
+    // which also gives every in-flight request its own (platform) thread
+    static ExecutorService threadPerRequest() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private interface Route {
+        // Returns the status code and fills the response body
+        int handle(HttpExchange ex, String[] path, StringBuilder out) throws IOException;
+    }
+
+    // HttpServer matches a context as a plain prefix, so /expendituresfoo would reach /expenditures;
+    // the handler only serves the name itself or the name followed by '/'
+    private static void route(HttpServer server, String name, Route route) {
+        server.createContext("/" + name, handler(name, route));
+    }
+
+    private static HttpHandler handler(String name, Route route) {
+        return ex -> {
+            StringBuilder out = new StringBuilder();
+            int status;
+            try {
+                String[] path = path(ex);
+                status = path[0].equals(name) ? route.handle(ex, path, out) : error(out, 404, "not found");
+            } catch (expenditureService.InsufficientFundsException e) {
+                status = error(out, 409, e.getMessage());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                status = error(out, 400, e.getMessage());
+            } catch (UncheckedIOException e) {
+                // The change is made in memory and retried by the next commit, but not on disk yet
+                status = error(out, 503, e.getMessage());
+            } catch (RuntimeException e) {
+                status = error(out, 500, e.toString());
+            }
+
+            byte[] body = out.toString().getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        };
+    }
+
+    // ---- /expenditures ----
+
+    private static int expenditures(HttpExchange ex, String[] path, StringBuilder out) throws IOException {
+        String method = ex.getRequestMethod();
+
+        if (path.length == 2) {
+            if (!method.equals("GET")) return error(out, 405, "use GET");
+            Expenditure e = expenditureService.get(path[1]);
+            if (e == null) return error(out, 404, "no expenditure " + path[1]);
+            write(out, e);
+            return 200;
+        }
+        if (path.length != 1) return error(out, 404, "not found");
+
+        if (method.equals("POST")) {
+            hashmap<String, String> body = json.parseObject(body(ex));
+            Expenditure e = expenditureService.addExpenditure(
+                    body.get("code"),
+                    number(body, "amount"),
+                    LocalDate.parse(required(body, "date")),
+                    body.get("phase"),
+                    body.get("category"),
+                    body.get("accountId"),
+                    "true".equals(body.get("allowOverdraft")));
+            write(out, e);
+            return 201;
+        }
+        if (!method.equals("GET")) return error(out, 405, "use GET or POST");
+
+        hashmap<String, String> query = query(ex);
+        arrayList<Expenditure> result;
+        if (query.get("category") != null) {
+            result = expenditureService.byCategory(query.get("category"));
+        } else if (query.get("account") != null) {
+            result = expenditureService.byAccount(query.get("account"));
+        } else if (query.get("from") != null || query.get("to") != null) {
+            result = expenditureService.byDateRange(LocalDate.parse(required(query, "from")), LocalDate.parse(required(query, "to")));
+        } else if (query.get("sort") != null) {
+            result = expenditureService.sorted(expenditureService.SortKey.valueOf(query.get("sort").toUpperCase()));
+        } else {
+            result = expenditureService.list();
+        }
+
+        out.append('[');
+        for (int i = 0; i < result.size(); i++) {
+            if (i > 0) out.append(',');
+            write(out, result.get(i));
+        }
+        out.append(']');
+        return 200;
+    }
+
+    // ---- /accounts ----
+
+    private static int accounts(HttpExchange ex, String[] path, StringBuilder out) throws IOException {
+        String method = ex.getRequestMethod();
+
+        if (path.length == 1) {
+            if (!method.equals("GET")) return error(out, 405, "use GET");
+            arrayList<BankAccount> list = expenditureService.accounts();
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) out.append(',');
+                write(out, list.get(i));
+            }
+            out.append(']');
+            return 200;
+        }
+
+        String id = path[1];
+        if (path.length == 2) {
+            if (!method.equals("GET")) return error(out, 405, "use GET");
+            BankAccount acc = expenditureService.account(id);
+            if (acc == null) return error(out, 404, "no account " + id);
+            write(out, acc);
+            return 200;
+        }
+
+        if (path.length == 3 && path[2].equals("top-up")) {
+            if (!method.equals("POST")) return error(out, 405, "use POST");
+            double balance = expenditureService.topUp(id, number(json.parseObject(body(ex)), "amount"));
+            out.append("{\"id\":").append(json.quote(id)).append(",\"balance\":").append(json.number(balance)).append('}');
+            return 200;
+        }
+        return error(out, 404, "not found");
+    }
+
+    // ---- /reports ----
+
+    private static int reports(HttpExchange ex, String[] path, StringBuilder out) {
+        if (!ex.getRequestMethod().equals("GET")) return error(out, 405, "use GET");
+        if (path.length != 2) return error(out, 404, "not found");
+
+        switch (path[1]) {
+            case "monthly" -> write(out, expenditureService.monthlyTotals());
+            case "category" -> write(out, expenditureService.categoryTotals());
+            case "phase" -> write(out, expenditureService.phaseTotals());
+            case "account" -> write(out, expenditureService.accountTotals());
+            case "burn-rate" -> {
+                hashmap<String, String> query = query(ex);
+                LocalDate from = LocalDate.parse(required(query, "from"));
+                LocalDate to = LocalDate.parse(required(query, "to"));
+                String unit = query.get("unit") == null ? "day" : query.get("unit");
+                expenditureService.BucketUnit bucketUnit = expenditureService.BucketUnit.valueOf(unit.toUpperCase());
+
+                out.append("{\"buckets\":");
+                write(out, expenditureService.burnRate(from, to, bucketUnit));
+                out.append(",\"total\":").append(json.number(expenditureService.totalSpend(from, to, bucketUnit))).append('}');
+            }
+            case "forecast" -> writeForecast(out);
+            default -> {
+                return error(out, 404, "no report " + path[1]);
+            }
+        }
+        return 200;
+    }
+
+    private static void writeForecast(StringBuilder out) {
+        arrayList<expenditureService.PhaseForecast> forecasts = expenditureService.forecast();
+        double balance = expenditureService.totalBalance();
+        double nextMonth = 0;
+
+        out.append("{\"phases\":[");
+        for (int i = 0; i < forecasts.size(); i++) {
+            expenditureService.PhaseForecast f = forecasts.get(i);
+            if (i > 0) out.append(',');
+            out.append("{\"phase\":").append(json.quote(f.phase))
+                    .append(",\"openMonth\":").append(json.quote(f.openMonth.toString()))
+                    .append(",\"openTotal\":").append(json.number(f.openTotal))
+                    .append(",\"closedMonths\":").append(f.closedMonths)
+                    .append(",\"months\":[");
+            for (int h = 0; h < f.blended.length; h++) {
+                if (h > 0) out.append(',');
+                out.append("{\"month\":").append(json.quote(f.openMonth.plusMonths(h).toString()))
+                        .append(",\"movingAverage\":").append(json.number(f.movingAverage[h]))
+                        .append(",\"smoothing\":").append(json.number(f.smoothing[h]))
+                        .append(",\"trend\":").append(json.number(f.trend[h]))
+                        .append(",\"blended\":").append(json.number(f.blended[h])).append('}');
+            }
+            out.append("]}");
+            nextMonth += f.blended[0];
+        }
+        out.append("],\"balance\":").append(json.number(balance))
+                .append(",\"runwayMonths\":").append(nextMonth > 0 ? json.number(balance / nextMonth) : "null")
+                .append('}');
+    }
+
+    // ---- Helpers ----
+
+    private static void write(StringBuilder out, Expenditure e) {
+        out.append("{\"code\":").append(json.quote(e.code))
+                .append(",\"amount\":").append(json.number(e.amount))
+                .append(",\"date\":").append(json.quote(e.date.toString()))
+                .append(",\"phase\":").append(json.quote(e.phase))
+                .append(",\"category\":").append(json.quote(e.category))
+                .append(",\"accountId\":").append(json.quote(e.accountId)).append('}');
+    }
+
+    private static void write(StringBuilder out, BankAccount acc) {
+        out.append("{\"id\":").append(json.quote(acc.id))
+                .append(",\"name\":").append(json.quote(acc.name))
+                .append(",\"balance\":").append(json.number(acc.balance)).append('}');
+    }
+
+    private static void write(StringBuilder out, hashmap<String, Double> totals) {
+        out.append('{');
+        boolean first = true;
+        for (hashmap.Node<String, Double> n : totals) {
+            if (!first) out.append(',');
+            first = false;
+            out.append(json.quote(n.key)).append(':').append(json.number(n.value));
+        }
+        out.append('}');
+    }
+
+    private static <K extends Comparable<? super K>> void write(StringBuilder out, myTreeMap<K> totals) {
+        out.append('{');
+        int start = out.length();
+        totals.forEach((key, total) -> {
+            if (out.length() > start) out.append(',');
+            out.append(json.quote(key.toString())).append(':').append(json.number(total));
+        });
+        out.append('}');
+    }
+
+    private static int error(StringBuilder out, int status, String message) {
+        out.setLength(0);
+        out.append("{\"error\":").append(json.quote(message)).append('}');
+        return status;
+    }
+
+    private static String body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new IllegalArgumentException("request body too large");
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // The path's segments, each percent-decoded once. Taken from the raw path, as getPath() has already
+    // decoded it: an id holding "%25" or "%2F" would be decoded twice or split in two. A '+' in a path
+    // is a plus sign, not a space as in a query string.
+    private static String[] path(HttpExchange ex) {
+        String[] segments = ex.getRequestURI().getRawPath().substring(1).split("/");
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = URLDecoder.decode(segments[i].replace("+", "%2B"), StandardCharsets.UTF_8);
+        }
+        return segments;
+    }
+
+    private static hashmap<String, String> query(HttpExchange ex) {
+        hashmap<String, String> params = new hashmap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return params;
+
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) params.put(decode(pair), "");
+            else params.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+        }
+        return params;
+    }
+
+    private static String decode(String s) {
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+
+    private static String required(hashmap<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) throw new IllegalArgumentException("missing " + name);
+        return value;
+    }
+
+    // Double.parseDouble also takes "NaN" and "Infinity", which are not amounts
+    private static double number(hashmap<String, String> fields, String name) {
+        double value;
+        try {
+            value = Double.parseDouble(required(fields, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        if (!Double.isFinite(value)) throw new IllegalArgumentException(name + " must be a finite number");
+        return value;
+    }
+}
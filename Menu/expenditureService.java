@@ -0,0 +1,407 @@
+package Menu;
+
+import DSA.arrayList;
+import DSA.hashmap;
+import DSA.intList;
+import DSA.myTreeMap;
+import Menu.addExpenditure.Expenditure;
+import Menu.bankAccount.BankAccount;
+import Menu.receipt.Receipt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+
+// Every operation the menus offer, without any console I/O: input problems are thrown as
+// IllegalArgumentException and results are returned. The menus, csvImport, the workload benchmark,
+// expenditureServer and batch jobs all go through here.
+//
+// Safe to call from many threads, and lists and totals are returned as copies. Balances are locked
+// per account (bankAccount.lockFor), so debits to different accounts run in parallel; the records
+// themselves are appended under one short-held lock. Writers stage their change and then wait for a
+// commit; one commit writes everything staged before it, outside both locks, so concurrent writers
+// share their fsyncs and keep staging while one is in progress (see groupCommit.commit(ticket)).
+//
+// Lock order: groupCommit.ioLock, then an account lock, then lock, then accountJournal's monitor.
+public class expenditureService {
+
+    // Guards addExpenditure's history and index, the ledger, the totals, categories and receipts.
+    // Kept global on purpose: a new row's number, its code index entry, its history slot, the search
+    // indexes and the totals must all change together, and readers expect them to agree. Making
+    // each of these concurrent would not make them change as one. The lock covers only the
+    // in-memory append and the debit's journal line staged with it, so the balance check and the
+    // fsync, which are the slow parts, run outside it.
+    static final Object lock = new Object();
+
+    public enum SortKey { CATEGORY, DATE, AMOUNT, ACCOUNT }
+
+    public enum BucketUnit { DAY, WEEK, MONTH }
+
+    public static class InsufficientFundsException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public final double balance;
+
+        InsufficientFundsException(String accountId, double balance, double amount) {
+            super("Account " + accountId + " has GHS " + balance + ", less than " + amount);
+            this.balance = balance;
+        }
+    }
+
+    // ---- Expenditures ----
+
+    // Validates, debits the account and commits the record to disk before returning it.
+    // Without allowOverdraft an amount above the balance is refused with InsufficientFundsException.
+    // UncheckedIOException means the commit failed: the change is made in memory and stays staged
+    // for the next commit, but is not on disk yet.
+    public static Expenditure addExpenditure(String code, double amount, LocalDate date, String phase,
+                                             String category, String accountId, boolean allowOverdraft) {
+        Expenditure e = stage(code, amount, date, phase, category, accountId, allowOverdraft);
+        groupCommit.commit(groupCommit.ticket());
+        return e;
+    }
+
+    // Same as addExpenditure, but the record reaches disk with the next group commit; for bulk loads
+    public static Expenditure stage(String code, double amount, LocalDate date, String phase,
+                                    String category, String accountId, boolean allowOverdraft) {
+        if (code == null || code.trim().isEmpty()) throw new IllegalArgumentException("missing item code");
+        if (!(amount >= 0)) throw new IllegalArgumentException("amount must not be negative");
+        if (!Double.isFinite(amount)) throw new IllegalArgumentException("amount must be a finite number");
+        if (date == null) throw new IllegalArgumentException("missing date");
+        if (!isPhase(phase)) throw new IllegalArgumentException("phase must be Construction, Marketing or Sales");
+        if (category == null || category.trim().isEmpty()) throw new IllegalArgumentException("missing category");
+
+        BankAccount acc = accountId == null ? null : bankAccount.find(accountId.trim());
+        if (acc == null) throw new IllegalArgumentException("account " + accountId + " not found");
+
+        synchronized (lock) {
+            viewExpenditure.ensureLoaded(); // so new entries land after the ones already on file
+        }
+
+        Expenditure e = new Expenditure(
+                code.trim(),
+                amount,
+                date,
+                addExpenditure.capitalize(phase.trim()),
+                addExpenditure.capitalize(category.trim()),
+                acc.id
+        );
+        // The balance check and the debit happen together under the account's lock
+        if (!addExpenditure.add(acc, e, allowOverdraft)) throw new InsufficientFundsException(acc.id, acc.balance, amount);
+
+        synchronized (lock) {
+            manageCategories.add(category);
+        }
+        groupCommit.commitIfDue();
+        return e;
+    }
+
+    public static boolean isPhase(String phase) {
+        if (phase == null) return false;
+        String p = phase.trim().toLowerCase();
+        return p.equals("construction") || p.equals("marketing") || p.equals("sales");
+    }
+
+    // Latest record for the code, or null
+    public static Expenditure get(String code) {
+        synchronized (lock) {
+            viewExpenditure.ensureLoaded();
+            int row = addExpenditure.rowOf(code);
+            return row == -1 ? null : ledger.store().get(row);
+        }
+    }
+
+    // One record per code, in the order the codes were first recorded
+    public static arrayList<Expenditure> list() {
+        return listed().toList();
+    }
+
+    // The sorts are stable, so ties keep chronological order
+    public static arrayList<Expenditure> sorted(SortKey key) {
+        return sortedBy(key).toList();
+    }
+
+    // Dated within [start, end], oldest first
+    public static arrayList<Expenditure> byDateRange(LocalDate start, LocalDate end) {
+        return inDateRange(start, end).toList();
+    }
+
+    public static arrayList<Expenditure> byCategory(String category) {
+        return inCategory(category).toList();
+    }
+
+    public static arrayList<Expenditure> byAccount(String accountId) {
+        return inAccount(accountId).toList();
+    }
+
+    // The same queries as rows of the store, for the console views: they walk the result with one
+    // flyweight instead of materialising an Expenditure per record
+
+    static expenditureStore.Selection listed() {
+        synchronized (lock) {
+            viewExpenditure.ensureLoaded();
+            expenditureStore store = ledger.store();
+            intList rows = new intList(addExpenditure.history.size());
+            for (int i = 0; i < addExpenditure.history.size(); i++) {
+                rows.add(addExpenditure.rowOf(store.code(addExpenditure.history.get(i))));
+            }
+            return store.select(rows);
+        }
+    }
+
+    static expenditureStore.Selection sortedBy(SortKey key) {
+        synchronized (lock) {
+            expenditureStore.Selection listed = listed();
+            expenditureStore store = ledger.store();
+            intList rows = listed.rows();
+            switch (key) {
+                case CATEGORY -> {
+                    int[] rank = symbols.ranks(String::toLowerCase);
+                    rows.sortByDoubleKey(row -> rankOf(rank, store.categoryId(row)));
+                }
+                case DATE -> rows.sortByDoubleKey(store::epochDay);
+                case AMOUNT -> rows.sortByDoubleKey(store::amount);
+                case ACCOUNT -> {
+                    int[] rank = symbols.ranks(s -> s);
+                    rows.sortByDoubleKey(row -> rankOf(rank, store.accountId(row)));
+                }
+            }
+            return listed;
+        }
+    }
+
+    static expenditureStore.Selection inDateRange(LocalDate start, LocalDate end) {
+        synchronized (lock) {
+            viewExpenditure.ensureLoaded();
+            return ledger.store().select(expenditureIndex.byDateRange(start, end));
+        }
+    }
+
+    static expenditureStore.Selection inCategory(String category) {
+        synchronized (lock) {
+            viewExpenditure.ensureLoaded();
+            return ledger.store().select(expenditureIndex.byCategory(category));
+        }
+    }
+
+    static expenditureStore.Selection inAccount(String accountId) {
+        synchronized (lock) {
+            viewExpenditure.ensureLoaded();
+            return ledger.store().select(expenditureIndex.byAccount(accountId));
+        }
+    }
+
+    private static int rankOf(int[] rank, int id) {
+        return id == -1 ? -1 : rank[id];
+    }
+
+    // ---- Accounts ----
+
+    public static BankAccount account(String id) {
+        return bankAccount.find(id);
+    }
+
+    public static arrayList<BankAccount> accounts() {
+        arrayList<BankAccount> list = new arrayList<>();
+        bankAccount.forEachAccount(list::add);
+        return list;
+    }
+
+    public static BankAccount openAccount(String id, String name, double balance) {
+        if (id == null || id.trim().isEmpty()) throw new IllegalArgumentException("missing account id");
+        if (id.contains(",") || (name != null && name.contains(",")))
+            throw new IllegalArgumentException("account id and name must not contain commas");
+
+        BankAccount acc = new BankAccount(id.trim(), name, balance);
+        if (bankAccount.register(acc) != null) throw new IllegalArgumentException("account " + id + " already exists");
+        bankAccount.track(acc);
+        try {
+            bankAccount.writeAllAccountsToFile();
+        } catch (IOException e) {
+            // Not on disk, so not opened: journal entries for it would be skipped on the next start
+            bankAccount.unregister(acc);
+            throw new UncheckedIOException("Failed to save account " + acc.id + ": " + e.getMessage(), e);
+        }
+        return acc;
+    }
+
+    // Returns the new balance; UncheckedIOException as for addExpenditure
+    public static double topUp(String id, double amount) {
+        BankAccount acc = bankAccount.find(id);
+        if (acc == null) throw new IllegalArgumentException("account " + id + " not found");
+        if (!(amount > 0)) throw new IllegalArgumentException("top-up amount must be positive");
+        if (!Double.isFinite(amount)) throw new IllegalArgumentException("top-up amount must be a finite number");
+
+        double balance = bankAccount.applyDelta(acc, amount, "Top-up: +" + amount);
+        groupCommit.commit(groupCommit.ticket());
+        return balance;
+    }
+
+    // The k lowest balances, lowest first
+    public static arrayList<BankAccount> lowestBalances(int k) {
+        return bankAccount.lowest(k);
+    }
+
+    // Each balance is read as it is at that moment; not a snapshot across accounts
+    public static double totalBalance() {
+        double[] total = new double[1];
+        bankAccount.forEachAccount(acc -> total[0] += acc.balance);
+        return total[0];
+    }
+
+    // ---- Categories ----
+
+    public static arrayList<String> categories() {
+        synchronized (lock) {
+            arrayList<String> list = new arrayList<>();
+            for (String c : manageCategories.categorySet) list.add(c);
+            return list;
+        }
+    }
+
+    // False when the category already exists
+    public static boolean addCategory(String category) {
+        synchronized (lock) {
+            if (category == null || category.trim().isEmpty()) throw new IllegalArgumentException("category cannot be empty");
+            return manageCategories.add(category);
+        }
+    }
+
+    // False when there was no such category
+    public static boolean removeCategory(String category) {
+        synchronized (lock) {
+            if (category == null || category.trim().isEmpty()) throw new IllegalArgumentException("category cannot be empty");
+            return manageCategories.remove(category);
+        }
+    }
+
+    // ---- Receipts ----
+
+    public static Receipt uploadReceipt(String code, String fileName, String uploader) {
+        synchronized (lock) {
+            Receipt r = new Receipt(code, fileName, uploader);
+            receipt.uploadQueue.push(r);
+            receipt.saveReceiptToFile(r);
+            return r;
+        }
+    }
+
+    // Takes the most recent upload off the queue and marks it reviewed; null when there is none
+    public static Receipt reviewNextReceipt() {
+        synchronized (lock) {
+            Receipt r = receipt.uploadQueue.pop();
+            if (r != null) r.status = "Reviewed";
+            return r;
+        }
+    }
+
+    // ---- Reports ----
+    // Totals are copied, since the live ones keep changing as expenditures are added
+
+    public static myTreeMap<YearMonth> monthlyTotals() {
+        synchronized (lock) {
+            myTreeMap<YearMonth> months = ledgerTotals.byMonth();
+            return months.size() == 0 ? new myTreeMap<>() : months.subMap(months.firstKey(), months.lastKey());
+        }
+    }
+
+    public static hashmap<String, Double> categoryTotals() {
+        synchronized (lock) {
+            return copy(ledgerTotals.byCategory());
+        }
+    }
+
+    public static hashmap<String, Double> phaseTotals() {
+        synchronized (lock) {
+            return copy(ledgerTotals.byPhase());
+        }
+    }
+
+    public static hashmap<String, Double> accountTotals() {
+        synchronized (lock) {
+            return copy(ledgerTotals.byAccount());
+        }
+    }
+
+    // Spend per day, week (starting Monday) or month, keyed by the first day of each bucket.
+    // Buckets are keyed by their first day, so the window starts at the bucket holding start.
+    public static myTreeMap<LocalDate> burnRate(LocalDate start, LocalDate end, BucketUnit unit) {
+        synchronized (lock) {
+            myTreeMap<LocalDate> buckets = new myTreeMap<>();
+            ledgerTotals.byDay().forEachInRange(bucket(start, unit), end, (day, total) -> buckets.put(bucket(day, unit), total));
+            return buckets;
+        }
+    }
+
+    // Total spend of the buckets burnRate returns for the same arguments
+    public static double totalSpend(LocalDate start, LocalDate end, BucketUnit unit) {
+        synchronized (lock) {
+            return ledgerTotals.byDay().sumRange(bucket(start, unit), end);
+        }
+    }
+
+    // One projection per phase that has spend, each HORIZON months long starting with the open month
+    public static class PhaseForecast {
+        public final String phase;
+        public final YearMonth openMonth;
+        public final double openTotal;
+        public final int closedMonths;
+        // Index 0 is the open month
+        public final double[] movingAverage = new double[spendForecast.HORIZON];
+        public final double[] smoothing = new double[spendForecast.HORIZON];
+        public final double[] trend = new double[spendForecast.HORIZON];
+        public final double[] blended = new double[spendForecast.HORIZON];
+
+        PhaseForecast(String phase, spendForecast.Model model) {
+            this(phase, model, LocalDate.now());
+        }
+
+        // The open month counts the spend recorded so far (see spendForecast.Model.openMonth)
+        PhaseForecast(String phase, spendForecast.Model model, LocalDate today) {
+            this.phase = phase;
+            this.openMonth = model.openMonth();
+            this.openTotal = model.openTotal();
+            this.closedMonths = model.closedMonths();
+            for (int h = 1; h <= spendForecast.HORIZON; h++) {
+                movingAverage[h - 1] = projected(model, model.movingAverage(), h, today);
+                smoothing[h - 1] = projected(model, model.smoothing(h), h, today);
+                trend[h - 1] = projected(model, model.linearTrend(h), h, today);
+                blended[h - 1] = projected(model, model.blended(h), h, today);
+            }
+        }
+
+        private static double projected(spendForecast.Model model, double forecast, int h, LocalDate today) {
+            return h == 1 ? model.openMonth(forecast, today) : forecast;
+        }
+    }
+
+    // Construction, Marketing, Sales order; phases without any spend are left out
+    public static arrayList<PhaseForecast> forecast() {
+        synchronized (lock) {
+            hashmap<String, spendForecast.Model> models = spendForecast.models();
+            arrayList<PhaseForecast> result = new arrayList<>();
+            for (String phase : new String[]{"Construction", "Marketing", "Sales"}) {
+                spendForecast.Model model = models.get(phase);
+                if (model != null) result.add(new PhaseForecast(phase, model));
+            }
+            return result;
+        }
+    }
+
+    private static <K> hashmap<K, Double> copy(hashmap<K, Double> totals) {
+        hashmap<K, Double> copy = new hashmap<>();
+        for (hashmap.Node<K, Double> n : totals) copy.put(n.key, n.value);
+        return copy;
+    }
+
+    private static LocalDate bucket(LocalDate date, BucketUnit unit) {
+        return switch (unit) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case DAY -> date;
+        };
+    }
+}
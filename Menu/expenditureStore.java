@@ -0,0 +1,217 @@
+package Menu;
+
+import DSA.arrayList;
+import DSA.intList;
+import Menu.addExpenditure.Expenditure;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+// The ledger in memory as one primitive column per field instead of an Expenditure object (with its
+// LocalDate and Strings) per record. Phase, category and account are kept as their symbols ids; the
+// columns themselves live on the heap or off it (see storeColumns). Rows are only ever appended, so a row
+// number stays valid for the life of the store; a reload builds a new store. Guarded by
+// expenditureService.lock.
+final class expenditureStore {
+
+    private final storeColumns columns;
+
+    expenditureStore() {
+        this(new storeColumns.Heap());
+    }
+
+    private expenditureStore(storeColumns columns) {
+        this.columns = columns;
+    }
+
+    // An empty store in the memory -Dnkwa.ledger.store picks (see ledger.STORE)
+    static expenditureStore create() {
+        return switch (ledger.STORE) {
+            case "offheap" -> new expenditureStore(offHeapColumns.inMemory());
+            case "mapped" -> new expenditureStore(offHeapColumns.create());
+            default -> new expenditureStore();
+        };
+    }
+
+    // The mapped store an earlier run left for this ledger file, or null if there is none or it is stale
+    static expenditureStore reopen(File ledgerFile) {
+        if (!ledger.STORE.equals("mapped")) return null;
+        offHeapColumns saved = offHeapColumns.open(ledgerFile.length(), ledgerFile.lastModified());
+        return saved == null ? null : new expenditureStore(saved);
+    }
+
+    // The first rows rows are now in the ledger file; a mapped store records that for the next start.
+    // Returns the disk writes that takes, to run outside the lock, or null (see storeColumns.persisted)
+    Runnable persisted(int rows, File ledgerFile) {
+        return columns.persisted(rows, ledgerFile.length(), ledgerFile.lastModified());
+    }
+
+    int add(Expenditure e) {
+        return add(e.code, e.amount, (int) e.date.toEpochDay(), e.phase, e.category, e.accountId);
+    }
+
+    // Returns the new row
+    int add(String code, double amount, int epochDay, String phase, String category, String account) {
+        return add(code, amount, epochDay, symbols.id(phase), symbols.id(category), symbols.id(account));
+    }
+
+    // The same, with phase, category and account already turned into symbols ids by the caller
+    int add(String code, double amount, int epochDay, int phase, int category, int account) {
+        columns.add(code, amount, epochDay, phase, category, account);
+        return columns.size() - 1;
+    }
+
+    int size() {
+        return columns.size();
+    }
+
+    String code(int row) {
+        return columns.code(row);
+    }
+
+    double amount(int row) {
+        return columns.amount(row);
+    }
+
+    int epochDay(int row) {
+        return columns.epochDay(row);
+    }
+
+    LocalDate date(int row) {
+        return LocalDate.ofEpochDay(columns.epochDay(row));
+    }
+
+    int phaseId(int row) {
+        return columns.phase(row);
+    }
+
+    int categoryId(int row) {
+        return columns.category(row);
+    }
+
+    int accountId(int row) {
+        return columns.account(row);
+    }
+
+    String phase(int row) {
+        return symbols.name(columns.phase(row));
+    }
+
+    String category(int row) {
+        return symbols.name(columns.category(row));
+    }
+
+    String account(int row) {
+        return symbols.name(columns.account(row));
+    }
+
+    // A materialised copy, for use after the lock is released
+    Expenditure get(int row) {
+        return new Expenditure(code(row), amount(row), date(row), phase(row), category(row), account(row));
+    }
+
+    Selection select(intList rows) {
+        return new Selection(rows);
+    }
+
+    // Flyweight over one row of a chunk copied out of the store: at(i) moves it, so a walk over a
+    // million rows uses one object and a few chunk-sized arrays, refilled chunk by chunk
+    final class View {
+        static final int CHUNK = 1024;
+
+        private final String[] codes = new String[CHUNK];
+        private final double[] amounts = new double[CHUNK];
+        private final int[] epochDays = new int[CHUNK];
+        private final String[] phases = new String[CHUNK];
+        private final String[] categories = new String[CHUNK];
+        private final String[] accounts = new String[CHUNK];
+        private int i;
+
+        // Copies rows [from, to) of the list, at most CHUNK of them; called with the lock held
+        void fill(intList rows, int from, int to) {
+            for (int k = 0; k < to - from; k++) {
+                int row = rows.get(from + k);
+                codes[k] = expenditureStore.this.code(row);
+                amounts[k] = expenditureStore.this.amount(row);
+                epochDays[k] = expenditureStore.this.epochDay(row);
+                phases[k] = expenditureStore.this.phase(row);
+                categories[k] = expenditureStore.this.category(row);
+                accounts[k] = expenditureStore.this.account(row);
+            }
+        }
+
+        View at(int i) {
+            this.i = i;
+            return this;
+        }
+
+        String code() {
+            return codes[i];
+        }
+
+        double amount() {
+            return amounts[i];
+        }
+
+        LocalDate date() {
+            return LocalDate.ofEpochDay(epochDays[i]);
+        }
+
+        String phase() {
+            return phases[i];
+        }
+
+        String category() {
+            return categories[i];
+        }
+
+        String accountId() {
+            return accounts[i];
+        }
+
+        @Override
+        public String toString() {
+            return Expenditure.describe(code(), amount(), date(), phase(), category(), accountId());
+        }
+    }
+
+    // Rows picked by a query, tied to this store so they stay meaningful after a reload replaces it
+    final class Selection {
+        private final intList rows;
+
+        private Selection(intList rows) {
+            this.rows = rows;
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        // The row numbers themselves; sortedBy reorders them in place
+        intList rows() {
+            return rows;
+        }
+
+        // A chunk of rows is copied under the lock and handed to the action after it is released,
+        // so printing never holds up writers
+        void forEach(Consumer<View> action) {
+            View view = new View();
+            for (int from = 0; from < rows.size(); from += View.CHUNK) {
+                int to = Math.min(rows.size(), from + View.CHUNK);
+                synchronized (expenditureService.lock) {
+                    view.fill(rows, from, to);
+                }
+                for (int i = 0; i < to - from; i++) action.accept(view.at(i));
+            }
+        }
+
+        arrayList<Expenditure> toList() {
+            synchronized (expenditureService.lock) {
+                arrayList<Expenditure> list = new arrayList<>();
+                for (int i = 0; i < rows.size(); i++) list.add(get(rows.get(i)));
+                return list;
+            }
+        }
+    }
+}
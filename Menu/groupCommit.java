@@ -0,0 +1,138 @@
+package Menu;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Batches expenditure records and balance-journal lines so a whole batch costs one write
+// and one fsync per file. Flushes on size, on age, on an explicit commit() and at exit.
+class groupCommit {
+
+    static final int MAX_BATCH = 1000;
+    static final long MAX_DELAY_MILLIS = 200;
+
+    // Held while the journal, the ledger or an account snapshot is written, so each file is written
+    // by one thread at a time and in staging order. State locks are only taken briefly inside it to
+    // hand over the buffers, never the other way round, so writers keep staging during an fsync.
+    static final Object ioLock = new Object();
+
+    // Changes staged since startup, how many of those a commit has taken, and how many are known to be
+    // on disk. Only commits, holding ioLock, move takenTotal and durableTotal.
+    private static final AtomicLong stagedTotal = new AtomicLong();
+    private static volatile long takenTotal = 0;
+    private static volatile long durableTotal = 0;
+    // When the first change after the last commit was staged. A change staged while a commit takes the
+    // batch may miss setting it, which leaves it older and only makes the next commit come sooner.
+    private static volatile long firstStagedAt;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                commit();
+                // Marks the last batch's rows as written, so the next start needn't look for them
+                synchronized (ioLock) {
+                    accountJournal.flush(0, ledger.mark());
+                }
+            } catch (UncheckedIOException e) {
+                System.out.println("⚠️ " + e.getMessage());
+            } catch (IOException e) {
+                System.out.println("⚠️ Error writing journal: " + e.getMessage());
+            }
+            ledgerTotals.save();
+        }));
+    }
+
+    // Called after each record or balance change is buffered, often with state locks held,
+    // so it only counts, without a lock; the write is left to commitIfDue()
+    static void staged() {
+        if (stagedTotal.incrementAndGet() == takenTotal + 1) firstStagedAt = System.currentTimeMillis();
+    }
+
+    // Commits once the batch is full or its oldest change is MAX_DELAY_MILLIS old.
+    // Callers must not hold any state lock. A failed commit is only reported: nothing here was
+    // promised to be on disk, and the changes stay staged for the next one.
+    static void commitIfDue() {
+        long waiting = stagedTotal.get() - takenTotal;
+        boolean due = waiting >= MAX_BATCH || (waiting > 0 && System.currentTimeMillis() - firstStagedAt >= MAX_DELAY_MILLIS);
+        if (!due) return;
+        try {
+            commit();
+        } catch (UncheckedIOException e) {
+            System.out.println("⚠️ " + e.getMessage());
+        }
+    }
+
+    // Position of the latest staged change; durable(ticket) turns true once a commit covers it
+    static long ticket() {
+        return stagedTotal.get();
+    }
+
+    static boolean durable(long ticket) {
+        return durableTotal >= ticket;
+    }
+
+    // Returns once a commit covers the ticket. Threads queue on ioLock while one of them writes,
+    // and usually find their change already written by the time they get it. Throws
+    // UncheckedIOException when the commit fails; the change stays staged and is retried by the next one.
+    static void commit(long ticket) {
+        if (durable(ticket)) return;
+        synchronized (ioLock) {
+            if (!durable(ticket)) commit();
+        }
+    }
+
+    // Writes everything staged: the journal lines first, then the ledger records they pay for. A crash
+    // in between leaves debits whose records never arrived, which bankAccount refunds on startup;
+    // a record is never on disk without its debit. Throws UncheckedIOException on failure.
+    static void commit() {
+        synchronized (ioLock) {
+            long covered = stagedTotal.get();
+            takenTotal = covered;
+            // Every change counted in covered was buffered before it was counted, so the writes below
+            // cover it. Both buffers are taken under the records lock: an expenditure stages its record
+            // and its debit under that lock, so neither batch holds half of the pair. No account is
+            // locked, so debits carry on meanwhile.
+            int journalLength;
+            synchronized (expenditureService.lock) {
+                journalLength = accountJournal.buffered();
+                ledger.take();
+            }
+
+            try {
+                write(journalLength);
+            } catch (IOException e) {
+                throw failed("changes", e);
+            }
+            durableTotal = covered;
+
+            if (accountJournal.pending() >= bankAccount.COMPACT_EVERY) {
+                try {
+                    bankAccount.writeAllAccountsToFile();
+                } catch (IOException e) {
+                    // The journal already holds every change; compaction is retried on the next commit
+                    System.out.println("⚠️ Error compacting journal: " + e.getMessage());
+                }
+                ledgerTotals.save();
+            }
+        }
+    }
+
+    // Writes a batch taken as above, in commit order: the journal lines up to
+    // journalLength, then the records. Called with ioLock held; on failure both stay staged.
+    static void write(int journalLength) throws IOException {
+        try {
+            accountJournal.flush(journalLength, ledger.mark());
+        } catch (IOException e) {
+            ledger.untake();
+            throw e;
+        }
+        ledger.flushTaken();
+    }
+
+    // Leaves the batch counted as staged, so commitIfDue retries it, and wraps the cause for the caller
+    private static UncheckedIOException failed(String what, IOException cause) {
+        takenTotal = durableTotal;
+        firstStagedAt = System.currentTimeMillis();
+        return new UncheckedIOException("Failed to save " + what + ": " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,133 @@
+package Menu;
+
+import DSA.hashmap;
+
+// Just enough JSON for expenditureServer: escaping for responses, and a reader for the flat
+// request objects it accepts ({"name": "text" | number | true | false | null, ...})
+final class json {
+
+    private json() {
+    }
+
+    static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // NaN and infinities have no JSON form
+    static String number(double d) {
+        return Double.isFinite(d) ? Double.toString(d) : "null";
+    }
+
+    // Values come back as text: strings unescaped, numbers and booleans as written, null as null
+    static hashmap<String, String> parseObject(String body) {
+        Reader r = new Reader(body);
+        hashmap<String, String> fields = new hashmap<>();
+
+        r.expect('{');
+        if (r.peek() == '}') {
+            r.pos++;
+        } else {
+            while (true) {
+                String name = r.string();
+                r.expect(':');
+                fields.put(name, r.value());
+                char c = r.next();
+                if (c == '}') break;
+                if (c != ',') throw r.error("expected , or }");
+            }
+        }
+        if (r.peek() != 0) throw r.error("unexpected content after the object");
+        return fields;
+    }
+
+    private static class Reader {
+        final String s;
+        int pos;
+
+        Reader(String s) {
+            this.s = s;
+        }
+
+        // Next non-blank character without consuming it, 0 at the end
+        char peek() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+            return pos < s.length() ? s.charAt(pos) : 0;
+        }
+
+        char next() {
+            char c = peek();
+            if (c == 0) throw error("unexpected end of input");
+            pos++;
+            return c;
+        }
+
+        void expect(char c) {
+            if (next() != c) throw error("expected " + c);
+        }
+
+        String value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '{' || c == '[') throw error("nested values are not supported");
+
+            int start = pos;
+            while (pos < s.length() && ",}] \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+            String literal = s.substring(start, pos);
+            if (literal.isEmpty()) throw error("missing value");
+            return literal.equals("null") ? null : literal;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (pos >= s.length()) throw error("unterminated string");
+                char c = s.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= s.length()) throw error("unterminated string");
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > s.length()) throw error("bad \\u escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("bad \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> sb.append(e); // \" \\ \/
+                }
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("invalid JSON at " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package Menu;
+
+import DSA.arrayList;
+import Menu.addExpenditure.Expenditure;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+// In-memory copy of the expenditure file, parsed once and shared by the view and report menus.
+// Guarded by expenditureService.lock, except the file write in flush().
+public class ledger {
+
+    static final String TEXT_FILE_NAME = "Menu/expenditures.txt";
+    // Pick the storage format with -Dnkwa.ledger.format=binary (default: text)
+    static final boolean BINARY = "binary".equalsIgnoreCase(System.getProperty("nkwa.ledger.format", "text"));
+    static final String FILE_NAME = BINARY ? binaryLedger.FILE_NAME : TEXT_FILE_NAME;
+    // Where the records are kept in memory, with -Dnkwa.ledger.store=heap (default), offheap (direct
+    // memory, out of the garbage collector's way) or mapped (off-heap and saved in offHeapColumns.DIRECTORY,
+    // so the next start maps it back in instead of parsing the ledger)
+    static final String STORE = System.getProperty("nkwa.ledger.store", "heap").toLowerCase();
+
+    // Every record in file order, repeated codes included
+    private static expenditureStore records = new expenditureStore();
+    private static long lastSize = -1;
+    private static long lastModified = -1;
+    // Bumped on every full reload so callers can tell their derived data is stale
+    private static int version = 0;
+    // Appended in memory but not yet written by groupCommit
+    private static arrayList<Expenditure> unflushed = new arrayList<>();
+    // Taken from unflushed by the flush in progress, null otherwise
+    private static arrayList<Expenditure> inflight;
+    // Length and row count of the file as of the last load or flush; -1 until the file has been read
+    private static long flushedLength = -1;
+    private static int flushedRows = -1;
+
+    // Returns the cached records, reading the file on first use and again only if it was changed
+    // outside this program
+    static expenditureStore records() {
+        File file = new File(FILE_NAME);
+        // While a flush is writing, the file is growing by records that are already in memory
+        if (inflight == null && (file.length() != lastSize || file.lastModified() != lastModified)) {
+            reload();
+        }
+        return records;
+    }
+
+    // The records as last loaded, without looking at the file
+    static expenditureStore store() {
+        return records;
+    }
+
+    static boolean flushing() {
+        return inflight != null;
+    }
+
+    // True when every record in memory is in the file: nothing staged or being written
+    static boolean settled() {
+        return inflight == null && unflushed.size() == 0;
+    }
+
+    // Makes the next records() call read the file again, as on a fresh start
+    static void invalidate() {
+        lastSize = -1;
+    }
+
+    static int version() {
+        return version;
+    }
+
+    // Adds the record in memory right away and returns its row; it reaches the file with the next group commit
+    static int append(Expenditure e) {
+        if (unflushed.size() == 0) records(); // pick up any outside edits before a new batch starts
+        ledgerTotals.add(e);
+        int row = records.add(e);
+        unflushed.add(e);
+        groupCommit.staged();
+        return row;
+    }
+
+    // Hands every staged record over to the next flushTaken(). Called by groupCommit with ioLock and
+    // the records lock held, so the batch holds exactly the records of the debits it hands over.
+    static void take() {
+        synchronized (expenditureService.lock) {
+            if (unflushed.size() == 0) return;
+            inflight = unflushed;
+            unflushed = new arrayList<>();
+        }
+    }
+
+    // Puts taken records back in front of anything appended meanwhile, to be retried on the next commit
+    static void untake() {
+        synchronized (expenditureService.lock) {
+            if (inflight == null) return;
+            for (int i = 0; i < unflushed.size(); i++) inflight.add(unflushed.get(i));
+            unflushed = inflight;
+            inflight = null;
+        }
+    }
+
+    // Writes the taken records with a single open and a single fsync. Called with ioLock held, but
+    // no account or records lock, so appends carry on while the file (and a mapped store) is written.
+    // On failure the file is cut back to its length before the batch and the records go back to the
+    // front of the queue.
+    static void flushTaken() throws IOException {
+        arrayList<Expenditure> batch;
+        synchronized (expenditureService.lock) {
+            batch = inflight;
+        }
+        if (batch == null) return;
+
+        File file = new File(FILE_NAME);
+        try {
+            if (BINARY) {
+                binaryLedger.append(file, batch);
+            } else {
+                appendText(file, batch);
+            }
+        } catch (IOException ex) {
+            untake();
+            throw ex;
+        }
+
+        Runnable persist;
+        synchronized (expenditureService.lock) {
+            remember(file);
+            int rows = records.size() - unflushed.size();
+            persist = records.persisted(rows, file);
+            if (flushedRows >= 0) {
+                flushedLength = file.length();
+                flushedRows = rows;
+            }
+        }
+        // A mapped store is forced to disk without the lock too. inflight stays set until it is done,
+        // so no reload swaps the store out from under it meanwhile.
+        if (persist != null) persist.run();
+
+        synchronized (expenditureService.lock) {
+            inflight = null;
+            ledgerTotals.flushed();
+        }
+    }
+
+    private static void appendText(File file, arrayList<Expenditure> batch) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            sb.append(batch.get(i)).append("\n\n");
+        }
+
+        long length = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            try {
+                out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            } catch (IOException e) {
+                truncate(file, length, e);
+                throw e;
+            }
+        }
+    }
+
+    // Cuts a file back to a length it had before a failed write; a failure here is added to the cause
+    static void truncate(File file, long length, IOException cause) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // The journal's mark for the file as last written, or null if it hasn't been read in this run
+    static String mark() {
+        synchronized (expenditureService.lock) {
+            if (flushedRows < 0) return null;
+            return accountJournal.LEDGER_MARK + flushedLength + "," + flushedRows;
+        }
+    }
+
+    private static void reload() {
+        File file = new File(FILE_NAME);
+        // Only at startup: later reloads mean the file changed underneath, and the store is rebuilt
+        expenditureStore loaded = version == 0 ? expenditureStore.reopen(file) : null;
+        if (loaded != null && BINARY) {
+            // The file isn't read, but appends still need the strings it defines
+            try {
+                binaryLedger.readDictionary(file);
+            } catch (IOException e) {
+                loaded = null; // read in full below, which reports what is wrong with it
+            }
+        }
+
+        boolean complete = true;
+        if (loaded == null) {
+            loaded = expenditureStore.create();
+            try {
+                if (BINARY) {
+                    binaryLedger.read(file, loaded);
+                } else {
+                    mappedLedgerReader.read(file, loaded);
+                }
+                // Run here, under the lock: nothing can use the records until they are loaded anyway
+                Runnable persist = loaded.persisted(loaded.size(), file);
+                if (persist != null) persist.run();
+            } catch (Exception e) {
+                System.out.println("❌ Error reading file: " + e.getMessage());
+                complete = false;
+            }
+        }
+
+        // A partly read file has no row count to mark the journal with
+        flushedLength = complete ? file.length() : -1;
+        flushedRows = complete ? loaded.size() : -1;
+
+        // Staged records are not in the file yet, so they survive the reload
+        for (int i = 0; i < unflushed.size(); i++) loaded.add(unflushed.get(i));
+
+        records = loaded;
+        remember(file);
+        version++;
+    }
+
+    private static void remember(File file) {
+        lastSize = file.length();
+        lastModified = file.lastModified();
+    }
+}
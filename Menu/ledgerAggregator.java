@@ -0,0 +1,110 @@
+package Menu;
+
+import DSA.longDoubleMap;
+import DSA.longHashMap;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Full-ledger aggregation for the report totals: the records are split into ranges, each range is
+// summed on its own fork/join worker, and the partial results are merged pairwise.
+class ledgerAggregator {
+
+    // Ranges at or below this size are summed directly
+    static final int LEAF_SIZE = 8192;
+    // -Dnkwa.reports.sequential=true runs the same code on one thread, for comparison
+    static final boolean sequential = Boolean.getBoolean("nkwa.reports.sequential");
+
+    // Mergeable totals, keyed the way the store keeps its columns: epoch days, and symbols ids for
+    // category, phase and account. Each dimension only holds the ids its rows use, so a leaf costs
+    // what it sums, not the size of the symbol table, which every account id is also in.
+    // ledgerTotals turns them back into dates and strings; months are derived from the days.
+    static class Partial {
+        final longDoubleMap byDay = new longDoubleMap();
+        final longDoubleMap byCategory = new longDoubleMap();
+        final longDoubleMap byPhase = new longDoubleMap();
+        final longDoubleMap byAccount = new longDoubleMap();
+        // phase id -> month (year * 12 + month - 1) -> total, the series the spend forecast is fitted on
+        final longHashMap<longDoubleMap> byPhaseMonth = new longHashMap<>();
+
+        void add(expenditureStore store, int row) {
+            double amount = store.amount(row);
+            int day = store.epochDay(row);
+            byDay.add(day, amount);
+            addTo(byCategory, store.categoryId(row), amount);
+            addTo(byAccount, store.accountId(row), amount);
+
+            int phase = store.phaseId(row);
+            if (phase != -1) {
+                byPhase.add(phase, amount);
+                months(phase).add(month(day), amount);
+            }
+        }
+
+        Partial merge(Partial other) {
+            other.byDay.forEach(byDay::add);
+            other.byCategory.forEach(byCategory::add);
+            other.byPhase.forEach(byPhase::add);
+            other.byAccount.forEach(byAccount::add);
+            other.byPhaseMonth.forEach((phase, months) -> months.forEach(months(phase)::add));
+            return this;
+        }
+
+        private longDoubleMap months(long phase) {
+            longDoubleMap months = byPhaseMonth.get(phase);
+            if (months == null) {
+                months = new longDoubleMap();
+                byPhaseMonth.put(phase, months);
+            }
+            return months;
+        }
+    }
+
+    // Months since year 0, the key of byPhaseMonth
+    static int month(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    static Partial aggregate(expenditureStore records) {
+        if (sequential || records.size() <= LEAF_SIZE) {
+            return sum(records, 0, records.size());
+        }
+        return ForkJoinPool.commonPool().invoke(new Task(records, 0, records.size()));
+    }
+
+    private static class Task extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient expenditureStore records;
+        private final int from, to;
+
+        Task(expenditureStore records, int from, int to) {
+            this.records = records;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_SIZE) return sum(records, from, to);
+
+            int mid = (from + to) >>> 1;
+            Task left = new Task(records, from, mid);
+            left.fork();
+            Partial right = new Task(records, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static Partial sum(expenditureStore records, int from, int to) {
+        Partial p = new Partial();
+        for (int row = from; row < to; row++) p.add(records, row);
+        return p;
+    }
+
+    private static void addTo(longDoubleMap totals, int id, double amount) {
+        if (id != -1) totals.add(id, amount);
+    }
+}
@@ -0,0 +1,374 @@
+package Menu;
+
+import DSA.arrayList;
+import DSA.hashmap;
+import DSA.longHashMap;
+import Menu.addExpenditure.Expenditure;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+
+// Round-trip checks for the files the app persists to: the text and binary ledgers (including
+// binary files written by format version 1) and the account journal replayed over a snapshot.
+// Everything is written to a temp directory, never to Menu/. Exits with status 1 if any check fails.
+//
+// Usage: java Menu.ledgerFormatTest
+public class ledgerFormatTest {
+
+    private static int failed = 0;
+    private static File dir;
+
+    public static void main(String[] args) throws IOException {
+        dir = Files.createTempDirectory("ledger-format").toFile();
+        System.out.println("\n=== 🧪 LEDGER FORMAT TESTS ===");
+
+        test("text ledger: write and read back", ledgerFormatTest::testTextLedger);
+        test("binary ledger: appends across restarts", ledgerFormatTest::testBinaryLedger);
+        test("binary ledger: appends after a start that reopened the mapped store", ledgerFormatTest::testReopenedStore);
+        test("binary ledger: version 1 files are read and appended to", ledgerFormatTest::testVersion1);
+        test("binary ledger: a bad header is rejected", ledgerFormatTest::testBadHeader);
+        test("binary ledger: converted from the text ledger", ledgerFormatTest::testConvert);
+        test("journal: ledger marks", ledgerFormatTest::testMarks);
+        test("journal: replay after a snapshot", ledgerFormatTest::testReplay);
+        test("journal: debits whose records never reached the ledger", ledgerFormatTest::testUnsaved);
+
+        File[] left = dir.listFiles();
+        if (left != null) for (File f : left) f.delete();
+        dir.delete();
+
+        System.out.println(failed == 0 ? "✅ All checks passed." : "❌ " + failed + " check(s) failed.");
+        if (failed > 0) System.exit(1);
+    }
+
+    private interface Check {
+        void run() throws IOException;
+    }
+
+    private static void test(String name, Check check) {
+        try {
+            check.run();
+            System.out.println("✅ " + name);
+        } catch (IOException | RuntimeException e) {
+            failed++;
+            System.out.println("❌ " + name + ": " + e);
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) throw new IllegalStateException(what);
+    }
+
+    // Amounts that don't print short, dates at the edges, a non-ASCII category and a null phase
+    private static arrayList<Expenditure> sample(int from, int count, boolean nullPhase) {
+        String[] categories = {"Cement", "Labour", "Café & meals", "Roofing sheets"};
+        double[] amounts = {0.01, 1234.5, 1.0E7, 123456789.12, 0.1 + 0.2, 99.99};
+        LocalDate[] dates = {LocalDate.of(1970, 1, 1), LocalDate.of(2024, 2, 29), LocalDate.of(2025, 12, 31)};
+
+        arrayList<Expenditure> batch = new arrayList<>();
+        for (int i = from; i < from + count; i++) {
+            String phase = nullPhase && i % 5 == 0 ? null : "Phase " + (i % 3 + 1);
+            batch.add(new Expenditure("EXP" + i, amounts[i % amounts.length] + i, dates[i % dates.length],
+                    phase, categories[i % categories.length], Long.toString(1400007253216L + i % 7)));
+        }
+        return batch;
+    }
+
+    private static void same(expenditureStore store, arrayList<Expenditure> expected, String what) {
+        check(store.size() == expected.size(), what + ": read " + store.size() + " records, wrote " + expected.size());
+        for (int row = 0; row < expected.size(); row++) {
+            Expenditure e = expected.get(row);
+            boolean ok = store.code(row).equals(e.code)
+                    && store.amount(row) == e.amount
+                    && store.date(row).equals(e.date)
+                    && equal(store.phase(row), e.phase)
+                    && store.category(row).equals(e.category)
+                    && store.account(row).equals(e.accountId);
+            check(ok, what + ": row " + row + " read back as " + store.get(row).toCSV() + ", wrote " + e.toCSV());
+        }
+    }
+
+    private static File fresh(String name) {
+        File file = new File(dir, name);
+        file.delete();
+        return file;
+    }
+
+    private static void writeText(File file, arrayList<Expenditure> batch, String tail) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) sb.append(batch.get(i)).append("\n\n");
+        sb.append(tail);
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void testTextLedger() throws IOException {
+        File file = fresh("expenditures.txt");
+        arrayList<Expenditure> written = sample(0, 500, false);
+        // A record that never got its Account line is not read
+        writeText(file, written, "Code: EXP-torn\nAmount: 12.5\nDate: 2025-01-01\nPhase: Phase 1\n");
+
+        expenditureStore store = new expenditureStore();
+        mappedLedgerReader.read(file, store);
+        same(store, written, "text");
+    }
+
+    private static void testBinaryLedger() throws IOException {
+        File file = fresh("expenditures.bin");
+        arrayList<Expenditure> written = new arrayList<>();
+
+        // Each batch is appended after a fresh read, as the next run of the app would
+        for (int batch = 0; batch < 4; batch++) {
+            binaryLedger.read(file, new expenditureStore());
+            arrayList<Expenditure> next = sample(batch * 300, 300, true);
+            binaryLedger.append(file, next);
+            for (int i = 0; i < next.size(); i++) written.add(next.get(i));
+        }
+        // Then twice more with no read between, each defining new strings after the ones before it
+        for (int batch = 0; batch < 2; batch++) {
+            arrayList<Expenditure> next = sample(1200 + batch * 50, 50, true);
+            next.add(new Expenditure("EXP-new" + batch, 5, LocalDate.of(2025, 6, 1), "Phase " + (9 + batch),
+                    "Scaffolding " + batch, Long.toString(1400007253299L + batch)));
+            binaryLedger.append(file, next);
+            for (int i = 0; i < next.size(); i++) written.add(next.get(i));
+        }
+
+        expenditureStore store = new expenditureStore();
+        binaryLedger.read(file, store);
+        same(store, written, "binary");
+
+        // Strings the file already defines are not written again: the record alone is 1 tag byte,
+        // the code as UTF, 8 amount bytes and four ints
+        long before = file.length();
+        arrayList<Expenditure> known = sample(0, 1, false);
+        binaryLedger.append(file, known);
+        long grew = file.length() - before;
+        check(grew == 1 + 2 + known.get(0).code.length() + 8 + 16, "a record with known strings took " + grew + " bytes");
+    }
+
+    // With -Dnkwa.ledger.store=mapped a start maps the saved store back in and never calls read();
+    // ledger.reload calls readDictionary instead, which is all this restart has to recover
+    private static void testReopenedStore() throws IOException {
+        File file = fresh("reopened.bin");
+        arrayList<Expenditure> written = sample(0, 300, true);
+        binaryLedger.append(file, written);
+
+        for (int run = 0; run < 2; run++) {
+            binaryLedger.readDictionary(file);
+
+            // Known strings are used by id, not defined again
+            long before = file.length();
+            arrayList<Expenditure> known = sample(run, 1, false);
+            binaryLedger.append(file, known);
+            written.add(known.get(0));
+            long grew = file.length() - before;
+            check(grew == 1 + 2 + known.get(0).code.length() + 8 + 16, "run " + run + ": a record with known strings took " + grew + " bytes");
+
+            arrayList<Expenditure> next = sample(300 + run * 50, 50, true);
+            next.add(new Expenditure("EXP-reopened" + run, 7, LocalDate.of(2025, 7, 1), "Phase " + (20 + run),
+                    "Formwork " + run, Long.toString(1400007253400L + run)));
+            binaryLedger.append(file, next);
+            for (int i = 0; i < next.size(); i++) written.add(next.get(i));
+        }
+
+        expenditureStore store = new expenditureStore();
+        binaryLedger.read(file, store);
+        same(store, written, "reopened");
+    }
+
+    private static void testVersion1() throws IOException {
+        File file = fresh("expenditures-v1.bin");
+        arrayList<Expenditure> written = sample(0, 200, true);
+
+        // The version 1 layout: every string, codes included, defined once and referred to by id
+        arrayList<String> strings = new arrayList<>();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(0x4E4B5741);
+            out.writeInt(1);
+            for (int i = 0; i < written.size(); i++) {
+                Expenditure e = written.get(i);
+                int code = define(out, strings, e.code);
+                int phase = define(out, strings, e.phase);
+                int category = define(out, strings, e.category);
+                int account = define(out, strings, e.accountId);
+                out.writeByte('R');
+                out.writeInt(code);
+                out.writeDouble(e.amount);
+                out.writeInt((int) e.date.toEpochDay());
+                out.writeInt(phase);
+                out.writeInt(category);
+                out.writeInt(account);
+            }
+        }
+
+        expenditureStore store = new expenditureStore();
+        binaryLedger.read(file, store);
+        same(store, written, "version 1");
+
+        // New records go on in the version 2 layout, with ids after the ones the old file used
+        arrayList<Expenditure> next = sample(200, 100, true);
+        next.add(new Expenditure("EXP-new", 5, LocalDate.of(2025, 6, 1), "Phase 9", "Scaffolding", "1400007253299"));
+        binaryLedger.append(file, next);
+        for (int i = 0; i < next.size(); i++) written.add(next.get(i));
+
+        store = new expenditureStore();
+        binaryLedger.read(file, store);
+        same(store, written, "version 1 with appends");
+    }
+
+    private static int define(DataOutputStream out, arrayList<String> strings, String value) throws IOException {
+        if (value == null) return -1;
+        for (int id = 0; id < strings.size(); id++) {
+            if (strings.get(id).equals(value)) return id;
+        }
+        out.writeByte('D');
+        out.writeInt(strings.size());
+        out.writeUTF(value);
+        strings.add(value);
+        return strings.size() - 1;
+    }
+
+    private static void testBadHeader() throws IOException {
+        File file = fresh("bad.bin");
+        Files.write(file.toPath(), "Code: EXP1\n".getBytes(StandardCharsets.UTF_8));
+        check(rejected(file), "a text file was read as a binary ledger");
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x4E4B5741);
+            out.writeInt(3);
+        }
+        check(rejected(file), "an unknown format version was read");
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x4E4B5741);
+            out.writeInt(2);
+            out.writeByte('E');
+            out.writeUTF("EXP1");
+            out.writeDouble(1);
+            out.writeInt(0);
+            out.writeInt(7);
+            out.writeInt(-1);
+            out.writeInt(-1);
+        }
+        check(rejected(file), "a record naming an undefined string was read");
+    }
+
+    private static boolean rejected(File file) {
+        try {
+            binaryLedger.read(file, new expenditureStore());
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void testConvert() throws IOException {
+        File text = fresh("convert.txt");
+        File binary = fresh("convert.bin");
+        arrayList<Expenditure> written = sample(0, 400, false);
+        writeText(text, written, "");
+
+        check(binaryLedger.convert(text, binary) == written.size(), "convert counted the wrong number of records");
+        expenditureStore store = new expenditureStore();
+        binaryLedger.read(binary, store);
+        same(store, written, "converted");
+    }
+
+    private static void testMarks() {
+        long[] mark = accountJournal.parseMark(accountJournal.LEDGER_MARK + "123456,789");
+        check(mark != null && mark[0] == 123456 && mark[1] == 789, "a well-formed mark");
+        check(accountJournal.parseMark("5,1400007253216,-10.0,1700000000000,EXP5") == null, "an entry read as a mark");
+        check(accountJournal.parseMark(accountJournal.LEDGER_MARK + "123456") == null, "a mark with no row count");
+        check(accountJournal.parseMark(accountJournal.LEDGER_MARK + "12x,3") == null, "a mark with a bad length");
+    }
+
+    private static void testReplay() throws IOException {
+        File file = fresh("accounts.journal");
+        StringBuilder sb = new StringBuilder();
+        for (int seq = 1; seq <= 6; seq++) {
+            // Entries up to 3 are in the format from before rows were journaled
+            sb.append(seq <= 3 ? entry(seq) : line(seq, "1400007253216", -seq, seq, "EXP" + seq));
+            if (seq == 3) sb.append(accountJournal.LEDGER_MARK).append("300,3\n");
+            // A flush that failed after writing and was retried writes the same entry again
+            if (seq == 5) sb.append(line(5, "1400007253216", -5, 5, "EXP5"));
+        }
+        sb.append(accountJournal.LEDGER_MARK).append("600,6\n");
+        sb.append("7,1400007253216,-7.0,17000"); // torn by a crash
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        // The snapshot covers entries up to 2; only the later ones are applied, once each
+        StringBuilder applied = new StringBuilder();
+        long[] mark = accountJournal.replay(file, 2, (account, delta, row, reason) ->
+                applied.append(reason).append('=').append(delta).append('@').append(row).append(' '));
+        check(applied.toString().equals("EXP3=-3.0@-1 EXP4=-4.0@4 EXP5=-5.0@5 EXP6=-6.0@6 "), "applied " + applied);
+        check(mark != null && mark[0] == 600 && mark[1] == 6, "the furthest mark was not returned");
+        check(accountJournal.lastSeq() == 6 && accountJournal.pending() == 4, "lastSeq " + accountJournal.lastSeq()
+                + ", pending " + accountJournal.pending());
+
+        // Once a snapshot up to 5 is saved, the journal keeps only entry 6
+        accountJournal.dropCovered(file, 5);
+        applied.setLength(0);
+        mark = accountJournal.replay(file, 0, (account, delta, row, reason) -> applied.append(reason).append(' '));
+        check(applied.toString().equals("EXP6 "), "after dropping covered entries, applied " + applied);
+        check(mark == null, "marks were kept; the snapshot carries them");
+        check(!new File(file.getPath() + ".tmp").exists(), "the temp file was left behind");
+
+        check(accountJournal.replay(fresh("missing.journal"), 9, (a, d, row, r) -> failed++) == null
+                && accountJournal.lastSeq() == 9, "a missing journal");
+    }
+
+    private static void testUnsaved() throws IOException {
+        // The ledger made it to row 4 and was marked at 3; the journal has debits for rows up to 6
+        arrayList<Expenditure> written = sample(0, 5, false);
+        expenditureStore store = new expenditureStore();
+        for (int i = 0; i < written.size(); i++) store.add(written.get(i));
+
+        File file = fresh("unsaved.journal");
+        StringBuilder sb = new StringBuilder();
+        sb.append(debit(1, written.get(1), 1));
+        sb.append(accountJournal.LEDGER_MARK).append("400,3\n");
+        sb.append(debit(2, written.get(3), 3));
+        sb.append(line(3, written.get(4).accountId, -1.5, 4, "EXP4")); // row 4 holds a different record
+        sb.append(debit(4, written.get(0), 5));
+        sb.append(debit(5, written.get(0), 6));
+        sb.append(line(6, written.get(0).accountId, written.get(0).amount, 6, "Refund")); // already refunded
+        sb.append(line(7, written.get(0).accountId, 50, -1, "Top-up: +50.0"));
+        sb.append("8,").append(written.get(0).accountId).append(",-2.0,1700000000000,Expenditure: -2.0 (OLD)\n");
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        longHashMap<bankAccount.JournaledDebit> debits = new longHashMap<>();
+        hashmap<String, bankAccount.BankAccount> accounts = new hashmap<>();
+        long[] mark = accountJournal.replay(file, 0, (id, delta, row, reason) -> {
+            bankAccount.BankAccount acc = accounts.get(id);
+            if (acc == null) accounts.put(id, acc = new bankAccount.BankAccount(id, "Test", 0));
+            bankAccount.JournaledDebit.track(debits, acc, delta, row, reason);
+        });
+        check(mark != null && mark[1] == 3, "the mark was not returned");
+
+        arrayList<bankAccount.JournaledDebit> unsaved = bankAccount.JournaledDebit.unsaved(debits, mark[1], store);
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < unsaved.size(); i++) rows.append(unsaved.get(i).row).append(' ');
+        check(rows.toString().equals("4 5 "), "unsaved rows " + rows);
+        check(unsaved.get(1).amount == written.get(0).amount, "refund amount " + unsaved.get(1).amount);
+
+        // Nothing past the last mark means the ledger needn't be read at all
+        check(bankAccount.JournaledDebit.anyPast(debits, 3) && !bankAccount.JournaledDebit.anyPast(debits, 6),
+                "debits past the mark");
+    }
+
+    private static String entry(int seq) {
+        return seq + ",1400007253216," + (double) -seq + ",1700000000000,EXP" + seq + "\n";
+    }
+
+    private static String line(long seq, String account, double delta, int row, String reason) {
+        return seq + "," + account + "," + delta + ",1700000000000," + row + "," + reason + "\n";
+    }
+
+    private static String debit(long seq, Expenditure e, int row) {
+        return line(seq, e.accountId, -e.amount, row, "Expenditure: -" + e.amount + " (" + e.code + ")");
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,243 @@
+package Menu;
+
+import DSA.hashmap;
+import DSA.myTreeMap;
+import Menu.addExpenditure.Expenditure;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Running totals per day, month, category, phase and account. Updated as each expenditure is
+// appended and saved next to the ledger at compaction and exit, so reports cost O(#groups) instead
+// of a ledger scan.
+class ledgerTotals {
+
+    static final String FILE_NAME = "Menu/expenditures.totals";
+    // First line of the saved file: the ledger file size and mtime the totals were taken from.
+    // Bumped whenever a kind of total is added, so older files are recomputed rather than half-read.
+    static final String HEADER = "#ledger.v2=";
+
+    private static myTreeMap<LocalDate> byDay = new myTreeMap<>();
+    private static myTreeMap<YearMonth> byMonth = new myTreeMap<>();
+    private static hashmap<String, Double> byCategory = new hashmap<>();
+    private static hashmap<String, Double> byPhase = new hashmap<>();
+    private static hashmap<String, Double> byAccount = new hashmap<>();
+    private static hashmap<String, myTreeMap<YearMonth>> byPhaseMonth = new hashmap<>();
+
+    private static boolean loaded = false;
+    private static long matchedSize = -1;
+    private static long matchedModified = -1;
+    // Changed since last saved
+    private static boolean dirty = false;
+
+    static myTreeMap<LocalDate> byDay() {
+        ensureCurrent();
+        return byDay;
+    }
+
+    static myTreeMap<YearMonth> byMonth() {
+        ensureCurrent();
+        return byMonth;
+    }
+
+    static hashmap<String, Double> byCategory() {
+        ensureCurrent();
+        return byCategory;
+    }
+
+    static hashmap<String, Double> byPhase() {
+        ensureCurrent();
+        return byPhase;
+    }
+
+    static hashmap<String, Double> byAccount() {
+        ensureCurrent();
+        return byAccount;
+    }
+
+    // phase -> monthly burn-rate for that phase
+    static hashmap<String, myTreeMap<YearMonth>> byPhaseMonth() {
+        ensureCurrent();
+        return byPhaseMonth;
+    }
+
+    // Called by ledger.append before the record joins ledger.records()
+    static void add(Expenditure e) {
+        ensureCurrent();
+        apply(e);
+    }
+
+    // Called once staged records are on disk: the file now holds what the totals were told about,
+    // apart from records staged since, which are still in ledger.records()
+    static void flushed() {
+        if (!loaded) return;
+        File file = new File(ledger.FILE_NAME);
+        matchedSize = file.length();
+        matchedModified = file.lastModified();
+        dirty = true;
+    }
+
+    // Uses the saved totals when they match the ledger file; otherwise recomputes from ledger.records()
+    private static void ensureCurrent() {
+        if (!loaded) {
+            loaded = true;
+            load();
+        }
+
+        // A flush in progress only writes records the totals already hold
+        if (ledger.flushing()) return;
+
+        File file = new File(ledger.FILE_NAME);
+        if (file.length() == matchedSize && file.lastModified() == matchedModified) return;
+
+        expenditureStore records = ledger.records();
+        rebuild(records, ledgerAggregator.aggregate(records));
+
+        matchedSize = file.length();
+        matchedModified = file.lastModified();
+        dirty = true;
+        // The rebuild already cost a scan; saving it now spares the next start one
+        save();
+    }
+
+    // Turns the aggregator's epoch days and symbols ids back into dates and strings
+    private static void rebuild(expenditureStore records, ledgerAggregator.Partial totals) {
+        clear();
+        totals.byDay.forEach((epochDay, total) -> {
+            LocalDate day = LocalDate.ofEpochDay(epochDay);
+            byDay.put(day, total);
+            byMonth.put(YearMonth.from(day), total);
+        });
+        totals.byCategory.forEach((id, total) -> byCategory.put(symbols.name((int) id), total));
+        totals.byPhase.forEach((id, total) -> byPhase.put(symbols.name((int) id), total));
+        totals.byAccount.forEach((id, total) -> byAccount.put(symbols.name((int) id), total));
+        totals.byPhaseMonth.forEach((id, series) -> {
+            myTreeMap<YearMonth> months = phaseMonths(symbols.name((int) id));
+            series.forEach((month, total) -> months.put(YearMonth.of((int) (month / 12), (int) (month % 12) + 1), total));
+        });
+        spendForecast.invalidate();
+    }
+
+    private static void apply(Expenditure e) {
+        byDay.put(e.date, e.amount);
+        byMonth.put(YearMonth.from(e.date), e.amount);
+        addTo(byCategory, e.category, e.amount);
+        addTo(byPhase, e.phase, e.amount);
+        addTo(byAccount, e.accountId, e.amount);
+        if (e.phase != null) {
+            YearMonth month = YearMonth.from(e.date);
+            phaseMonths(e.phase).put(month, e.amount);
+            spendForecast.observe(e.phase, month, e.amount);
+        }
+    }
+
+    private static myTreeMap<YearMonth> phaseMonths(String phase) {
+        myTreeMap<YearMonth> months = byPhaseMonth.get(phase);
+        if (months == null) {
+            months = new myTreeMap<>();
+            byPhaseMonth.put(phase, months);
+        }
+        return months;
+    }
+
+    private static void addTo(hashmap<String, Double> totals, String key, double amount) {
+        if (key == null) return;
+        Double current = totals.get(key);
+        totals.put(key, (current == null ? 0 : current) + amount);
+    }
+
+    private static void clear() {
+        byDay = new myTreeMap<>();
+        byMonth = new myTreeMap<>();
+        byCategory = new hashmap<>();
+        byPhase = new hashmap<>();
+        byAccount = new hashmap<>();
+        byPhaseMonth = new hashmap<>();
+    }
+
+    // Format: header line, then one "kind,total,key" line per group (key last, so it may hold commas)
+    private static void load() {
+        File file = new File(FILE_NAME);
+        if (!file.exists()) return;
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String header = br.readLine();
+            if (header == null || !header.startsWith(HEADER)) return;
+            String[] fingerprint = header.substring(HEADER.length()).split(",");
+            long size = Long.parseLong(fingerprint[0]);
+            long modified = Long.parseLong(fingerprint[1]);
+
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",", 3);
+                if (parts.length != 3) continue;
+                double total = Double.parseDouble(parts[1]);
+
+                switch (parts[0]) {
+                    case "D" -> byDay.put(LocalDate.parse(parts[2]), total);
+                    case "M" -> byMonth.put(YearMonth.parse(parts[2]), total);
+                    case "C" -> byCategory.put(parts[2], total);
+                    case "P" -> byPhase.put(parts[2], total);
+                    case "A" -> byAccount.put(parts[2], total);
+                    case "Q" -> {
+                        // key is "month,phase"
+                        int comma = parts[2].indexOf(',');
+                        phaseMonths(parts[2].substring(comma + 1)).put(YearMonth.parse(parts[2].substring(0, comma)), total);
+                    }
+                    default -> { }
+                }
+            }
+
+            matchedSize = size;
+            matchedModified = modified;
+        } catch (IOException | RuntimeException e) {
+            // Unreadable totals are simply recomputed
+            clear();
+        }
+    }
+
+    // Called by groupCommit when it compacts and at exit, not per flush: the file is rewritten whole.
+    // Skipped while records are staged, as the totals then hold rows the fingerprinted file doesn't.
+    static void save() {
+        String text;
+        synchronized (expenditureService.lock) {
+            if (!loaded || !dirty || !ledger.settled()) return;
+            text = format();
+            dirty = false;
+        }
+
+        File tmp = new File(FILE_NAME + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            }
+            Files.move(tmp.toPath(), new File(FILE_NAME).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("⚠️ Failed to save report totals: " + e.getMessage());
+            synchronized (expenditureService.lock) {
+                dirty = true;
+            }
+        }
+    }
+
+    private static String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(HEADER).append(matchedSize).append(',').append(matchedModified).append('\n');
+        byDay.forEach((day, total) -> sb.append("D,").append(total).append(',').append(day).append('\n'));
+        byMonth.forEach((month, total) -> sb.append("M,").append(total).append(',').append(month).append('\n'));
+        for (hashmap.Node<String, Double> n : byCategory) sb.append("C,").append(n.value).append(',').append(n.key).append('\n');
+        for (hashmap.Node<String, Double> n : byPhase) sb.append("P,").append(n.value).append(',').append(n.key).append('\n');
+        for (hashmap.Node<String, Double> n : byAccount) sb.append("A,").append(n.value).append(',').append(n.key).append('\n');
+        for (hashmap.Node<String, myTreeMap<YearMonth>> phase : byPhaseMonth) {
+            phase.value.forEach((month, total) ->
+                    sb.append("Q,").append(total).append(',').append(month).append(',').append(phase.key).append('\n'));
+        }
+        return sb.toString();
+    }
+}
@@ -2,9 +2,12 @@ package Menu;
 
 import DSA.hashset;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
 public class manageCategories {
@@ -19,7 +22,7 @@ public class manageCategories {
     }
 
     public static void categories() {
-        Scanner s = new Scanner(System.in);
+        Scanner s = console.in;
 
         while (true) {
             try {
@@ -72,13 +75,10 @@ public class manageCategories {
                 return;
             }
 
-            if (categorySet.contains(input)) {
+            if (!expenditureService.addCategory(input)) {
                 System.out.println("⚠️ Category already exists.");
                 return;
             }
-
-            categorySet.add(input);
-            saveCategoriesToFile(); // <-- Save to file
             System.out.println("✅ Category added!");
 
         } catch (Exception e) {
@@ -96,13 +96,10 @@ public class manageCategories {
                 return;
             }
 
-            if (!categorySet.contains(input)) {
+            if (!expenditureService.removeCategory(input)) {
                 System.out.println("⚠️ Category does not exist.");
                 return;
             }
-
-            categorySet.remove(input);
-            saveCategoriesToFile(); // <-- Save to file
             System.out.println("✅ Category deleted!");
 
         } catch (Exception e) {
@@ -111,7 +108,7 @@ public class manageCategories {
     }
 
     private static void loadCategoriesFromFile() throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader("Menu/category.txt"))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader("Menu/category.txt", StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 line = line.trim();
@@ -125,27 +122,58 @@ public class manageCategories {
     }
 
     private static void saveCategoriesToFile() {
-        try (FileWriter writer = new FileWriter("Menu/category.txt")) {
-            for (int i = 0; i < hashset.SIZE; i++) {
-                DSA.hashset.Node node = categorySet.buckets[i];
-                while (node != null) {
-                    writer.write(node.value + "\n");
-                    node = node.next;
-                }
+        try (FileWriter writer = new FileWriter("Menu/category.txt", StandardCharsets.UTF_8)) {
+            for (String category : categorySet) {
+                writer.write(category + "\n");
             }
         } catch (IOException e) {
             System.out.println("⚠️ Failed to save categories to file: " + e.getMessage());
         }
     }
+
+    // New categories only ever extend the file, so adding one doesn't cost a rewrite of all of them
+    private static void appendCategoriesToFile(String lines) {
+        File file = new File("Menu/category.txt");
+        try {
+            if (!endsWithNewline(file)) lines = "\n" + lines; // a hand-edited last line may lack one
+            try (FileWriter writer = new FileWriter(file, StandardCharsets.UTF_8, true)) {
+                writer.write(lines);
+            }
+        } catch (IOException e) {
+            System.out.println("⚠️ Failed to save categories to file: " + e.getMessage());
+        }
+    }
+
+    private static boolean endsWithNewline(File file) throws IOException {
+        if (file.length() == 0) return true;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
     public static void addCategoryIfNew(String category) {
+        if (add(category)) {
+            System.out.println("📁 New category added to category.txt: " + category.trim());
+        }
+    }
+
+    // Adds to memory and category.txt; false when it was already there (in any case)
+    static boolean add(String category) {
         category = category.trim();
-        if (category.isEmpty()) return;
+        if (category.isEmpty() || !categorySet.add(category)) return false;
 
-        if (!categorySet.contains(category)) {
-            categorySet.add(category); // Add to memory
-            saveCategoriesToFile();    // Save to category.txt
-            System.out.println("📁 New category added to category.txt: " + category);
-        }
+        appendCategoriesToFile(category + "\n");
+        return true;
+    }
+
+    // Removes from memory and category.txt; false when it was not there
+    static boolean remove(String category) {
+        category = category.trim();
+        if (!categorySet.remove(category)) return false;
+
+        saveCategoriesToFile();
+        return true;
     }
 
 }
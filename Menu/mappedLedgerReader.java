@@ -0,0 +1,245 @@
+package Menu;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+// Reads the text ledger through memory-mapped windows, parsing amounts and dates
+// straight from the bytes instead of going through a String per line
+class mappedLedgerReader {
+
+    // Each window is mapped separately, so files larger than 2 GB work too
+    static final long WINDOW_SIZE = 64L << 20;
+
+    private static final byte[] CODE = ascii("Code:");
+    private static final byte[] AMOUNT = ascii("Amount:");
+    private static final byte[] DATE = ascii("Date:");
+    private static final byte[] PHASE = ascii("Phase:");
+    private static final byte[] CATEGORY = ascii("Category:");
+    private static final byte[] ACCOUNT = ascii("Account:");
+
+    // Exact powers of ten for the fast amount path
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private final expenditureStore out;
+    private byte[] scratch = new byte[256];
+
+    // Fields of the record being assembled; phase and category as symbols ids
+    private String code;
+    private int phase = -1, category = -1;
+    private double amount;
+    private LocalDate date;
+
+    // Symbols ids of the phase, category and account spellings met so far, keyed by their bytes in an
+    // open-addressed table, so a repeated value costs a hash over its bytes and no String
+    private byte[][] symbolBytes = new byte[64][];
+    private int[] symbolIds = new int[64];
+    private int cachedSymbols;
+
+    private mappedLedgerReader(expenditureStore out) {
+        this.out = out;
+    }
+
+    static void read(File file, expenditureStore out) throws IOException {
+        if (!file.exists()) return;
+        new mappedLedgerReader(out).scan(file);
+    }
+
+    private void scan(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                int length = (int) Math.min(WINDOW_SIZE, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buf.get(i) == '\n') {
+                        line(buf, lineStart, i);
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (lastWindow) {
+                    if (lineStart < length) line(buf, lineStart, length);
+                    break;
+                }
+                // Re-map from the start of the unfinished line
+                if (lineStart == 0) throw new IOException("Line longer than the mapping window at byte " + position);
+                position += lineStart;
+            }
+        }
+    }
+
+    // Handles the bytes [start, end) of one line, whitespace included
+    private void line(MappedByteBuffer buf, int start, int end) throws IOException {
+        while (start < end && buf.get(start) <= ' ') start++;
+        while (end > start && buf.get(end - 1) <= ' ') end--;
+        if (start == end) return;
+
+        if (startsWith(buf, start, end, CODE)) {
+            code = text(buf, start + CODE.length, end);
+        } else if (startsWith(buf, start, end, AMOUNT)) {
+            amount = parseAmount(buf, start + AMOUNT.length, end);
+        } else if (startsWith(buf, start, end, DATE)) {
+            date = parseDate(buf, start + DATE.length, end);
+        } else if (startsWith(buf, start, end, PHASE)) {
+            phase = symbol(buf, start + PHASE.length, end);
+        } else if (startsWith(buf, start, end, CATEGORY)) {
+            category = symbol(buf, start + CATEGORY.length, end);
+        } else if (startsWith(buf, start, end, ACCOUNT)) {
+            // A record is complete once its Account line is read
+            int account = symbol(buf, start + ACCOUNT.length, end);
+            if (code != null && date != null) {
+                out.add(code, amount, (int) date.toEpochDay(), phase, category, account);
+            }
+
+            // reset for next entry
+            code = null;
+            phase = category = -1;
+            amount = 0;
+            date = null;
+        }
+    }
+
+    private static boolean startsWith(MappedByteBuffer buf, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buf.get(start + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private String text(MappedByteBuffer buf, int start, int end) {
+        while (start < end && buf.get(start) <= ' ') start++;
+        int length = end - start;
+        if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        buf.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int symbol(MappedByteBuffer buf, int start, int end) {
+        while (start < end && buf.get(start) <= ' ') start++;
+
+        int hash = 0;
+        for (int i = start; i < end; i++) hash = 31 * hash + buf.get(i);
+        int mask = symbolBytes.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        for (byte[] key; (key = symbolBytes[slot]) != null; slot = (slot + 1) & mask) {
+            if (sameBytes(buf, start, end, key)) return symbolIds[slot];
+        }
+
+        int id = symbols.id(text(buf, start, end));
+        byte[] key = new byte[end - start];
+        buf.get(start, key);
+        symbolBytes[slot] = key;
+        symbolIds[slot] = id;
+        if (++cachedSymbols * 2 > symbolBytes.length) growSymbols();
+        return id;
+    }
+
+    private static boolean sameBytes(MappedByteBuffer buf, int start, int end, byte[] key) {
+        if (end - start != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (buf.get(start + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private void growSymbols() {
+        byte[][] oldBytes = symbolBytes;
+        int[] oldIds = symbolIds;
+        symbolBytes = new byte[oldBytes.length * 2][];
+        symbolIds = new int[oldBytes.length * 2];
+        int mask = symbolBytes.length - 1;
+        for (int i = 0; i < oldBytes.length; i++) {
+            byte[] key = oldBytes[i];
+            if (key == null) continue;
+            int hash = 0;
+            for (byte b : key) hash = 31 * hash + b;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (symbolBytes[slot] != null) slot = (slot + 1) & mask;
+            symbolBytes[slot] = key;
+            symbolIds[slot] = oldIds[i];
+        }
+    }
+
+    // Plain decimals with up to 15 significant digits are exact as mantissa / 10^k;
+    // anything else (exponents, long mantissas) goes through Double.parseDouble
+    private double parseAmount(MappedByteBuffer buf, int start, int end) {
+        while (start < end && buf.get(start) <= ' ') start++;
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negative = buf.get(i++) == '-';
+
+        long mantissa = 0;
+        int digits = 0, fractionDigits = 0;
+        boolean seenPoint = false, valid = i < end;
+        for (; i < end; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) digits++;
+                if (seenPoint) fractionDigits++;
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                valid = false;
+                break;
+            }
+        }
+
+        if (valid && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(text(buf, start, end));
+    }
+
+    // Fast path for YYYY-MM-DD; other shapes fall back to LocalDate.parse
+    private LocalDate parseDate(MappedByteBuffer buf, int start, int end) throws IOException {
+        while (start < end && buf.get(start) <= ' ') start++;
+
+        if (end - start == 10 && buf.get(start + 4) == '-' && buf.get(start + 7) == '-') {
+            int year = digits(buf, start, 4);
+            int month = digits(buf, start + 5, 2);
+            int day = digits(buf, start + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (java.time.DateTimeException e) {
+                    throw new IOException("Invalid date: " + text(buf, start, end));
+                }
+            }
+        }
+        return LocalDate.parse(text(buf, start, end));
+    }
+
+    // Returns -1 when any byte is not a digit
+    private static int digits(MappedByteBuffer buf, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buf.get(i);
+            if (b < '0' || b > '9') return -1;
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
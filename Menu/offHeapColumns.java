@@ -0,0 +1,310 @@
+package Menu;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Store columns in direct memory, so the garbage collector never scans or copies them however long
+// the ledger gets. Rows live in fixed chunks that are never moved or copied when the store grows.
+// With a directory the chunks are memory-mapped files, and a later start reopens them instead of
+// parsing the ledger, as long as the header still names the ledger file's size and timestamp.
+final class offHeapColumns extends storeColumns {
+
+    static final String DIRECTORY = "Menu/expenditures.store";
+    // Header: magic, version, rows, code area end, saved symbols, ledger size, ledger mtime
+    private static final int MAGIC = 0x4E4B5743; // "NKWC"
+    private static final int VERSION = 2;
+
+    // Rows per chunk. A chunk holds every column for its rows, one column after the other:
+    // amount (8 bytes), code reference (8), epoch day (4), then phase, category and account ids (4 each)
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int ROW_MASK = CHUNK_ROWS - 1;
+    private static final int AMOUNTS = 0;
+    private static final int CODES = 8 * CHUNK_ROWS;
+    private static final int DAYS = 16 * CHUNK_ROWS;
+    private static final int PHASES = 20 * CHUNK_ROWS;
+    private static final int CATEGORIES = 24 * CHUNK_ROWS;
+    private static final int ACCOUNTS = 28 * CHUNK_ROWS;
+    private static final int CHUNK_BYTES = 32 * CHUNK_ROWS;
+
+    // Codes are kept as [int length][UTF-8 bytes] in segments; an entry never spans two segments,
+    // so a code reference is just segment << SEGMENT_SHIFT | offset
+    private static final int SEGMENT_SHIFT = 22;
+    private static final int SEGMENT_BYTES = 1 << SEGMENT_SHIFT;
+
+    // null when the columns only live in memory
+    private final File directory;
+    private ByteBuffer[] chunks = new ByteBuffer[16];
+    private ByteBuffer[] segments = new ByteBuffer[4];
+    private int size;
+    private long codesEnd;
+    // Symbols ids the rows use, each written to the symbols file the first time a row uses it
+    private boolean[] saved = new boolean[64];
+    private int savedSymbols;
+    // What the last persisted() already forced to disk
+    private int forcedRows;
+    private long forcedCodes;
+    // Set when a symbol could not be saved; the header is then never rewritten
+    private boolean incomplete;
+
+    private offHeapColumns(File directory) {
+        this.directory = directory;
+    }
+
+    // Columns in direct memory only, gone when the program exits
+    static offHeapColumns inMemory() {
+        return new offHeapColumns(null);
+    }
+
+    // Empty mapped columns, replacing whatever an earlier run left. The old files are unlinked rather
+    // than truncated, so a store still mapping them keeps working until it is dropped.
+    static offHeapColumns create() {
+        File dir = new File(DIRECTORY);
+        try {
+            Files.deleteIfExists(file(dir, "header").toPath()); // first, so a half-built store is never reopened
+            Files.deleteIfExists(file(dir, "rows").toPath());
+            Files.deleteIfExists(file(dir, "codes").toPath());
+            Files.deleteIfExists(file(dir, "symbols").toPath());
+            Files.createDirectories(dir.toPath());
+        } catch (IOException e) {
+            System.out.println("⚠️ Cannot use " + DIRECTORY + ", keeping the records in memory: " + e.getMessage());
+            return inMemory();
+        }
+        return new offHeapColumns(dir);
+    }
+
+    // The columns an earlier run left, if they were persisted against this very ledger file and their
+    // symbols can keep the ids they had then; otherwise null
+    static offHeapColumns open(long ledgerSize, long ledgerModified) {
+        File dir = new File(DIRECTORY);
+        File header = file(dir, "header");
+        if (!header.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(header)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            int rows = in.readInt();
+            long codesEnd = in.readLong();
+            int strings = in.readInt();
+            if (in.readLong() != ledgerSize || in.readLong() != ledgerModified) return null;
+
+            offHeapColumns columns = new offHeapColumns(dir);
+            if (strings > 0) {
+                try (DataInputStream d = new DataInputStream(new BufferedInputStream(new FileInputStream(file(dir, "symbols"))))) {
+                    for (int i = 0; i < strings; i++) {
+                        int id = d.readInt();
+                        byte[] bytes = new byte[d.readInt()];
+                        d.readFully(bytes);
+                        if (!symbols.restore(id, new String(bytes, StandardCharsets.UTF_8))) return null;
+                        columns.markSaved(id);
+                    }
+                }
+            }
+            for (int c = 0; c < (rows + CHUNK_ROWS - 1) >>> CHUNK_SHIFT; c++) columns.chunk(c);
+            for (int s = 0; s <= (int) (codesEnd >>> SEGMENT_SHIFT); s++) columns.segment(s);
+            columns.size = rows;
+            columns.codesEnd = codesEnd;
+            columns.forcedRows = rows;
+            columns.forcedCodes = codesEnd;
+            return columns;
+        } catch (IOException | RuntimeException e) {
+            // An unreadable store is simply rebuilt from the ledger
+            return null;
+        }
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    void add(String code, double amount, int epochDay, int phase, int category, int account) {
+        ByteBuffer c = chunk(size >>> CHUNK_SHIFT);
+        int i = size & ROW_MASK;
+        c.putDouble(AMOUNTS + (i << 3), amount);
+        c.putLong(CODES + (i << 3), putCode(code));
+        c.putInt(DAYS + (i << 2), epochDay);
+        c.putInt(PHASES + (i << 2), phase);
+        c.putInt(CATEGORIES + (i << 2), category);
+        c.putInt(ACCOUNTS + (i << 2), account);
+        size++;
+
+        if (directory != null) {
+            save(phase);
+            save(category);
+            save(account);
+        }
+    }
+
+    @Override
+    String code(int row) {
+        long ref = chunks[row >>> CHUNK_SHIFT].getLong(CODES + ((row & ROW_MASK) << 3));
+        if (ref == -1) return null;
+
+        ByteBuffer s = segments[(int) (ref >>> SEGMENT_SHIFT)];
+        int offset = (int) (ref & (SEGMENT_BYTES - 1));
+        byte[] bytes = new byte[s.getInt(offset)];
+        s.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    double amount(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getDouble(AMOUNTS + ((row & ROW_MASK) << 3));
+    }
+
+    @Override
+    int epochDay(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(DAYS + ((row & ROW_MASK) << 2));
+    }
+
+    @Override
+    int phase(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(PHASES + ((row & ROW_MASK) << 2));
+    }
+
+    @Override
+    int category(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(CATEGORIES + ((row & ROW_MASK) << 2));
+    }
+
+    @Override
+    int account(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(ACCOUNTS + ((row & ROW_MASK) << 2));
+    }
+
+    // Appends the symbol to the symbols file the first time a row uses it
+    private void save(int id) {
+        if (id == -1 || (id < saved.length && saved[id])) return;
+
+        byte[] bytes = symbols.name(id).getBytes(StandardCharsets.UTF_8);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file(directory, "symbols"), true))) {
+            out.writeInt(id);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            incomplete = true;
+            System.out.println("⚠️ Failed to save " + DIRECTORY + ": " + e.getMessage());
+        }
+        markSaved(id);
+    }
+
+    private void markSaved(int id) {
+        if (id >= saved.length) saved = Arrays.copyOf(saved, Math.max(saved.length * 2, id + 1));
+        saved[id] = true;
+        savedSymbols++;
+    }
+
+    // Notes what the header will vouch for while the lock is held; the returned task then forces the
+    // new rows, codes and symbols to disk and replaces the header, so a crash leaves either the old
+    // header or a complete new one. Rows and codes added after this call wait for the next one.
+    // Tasks must run one at a time and in order (groupCommit's ioLock sees to that).
+    @Override
+    Runnable persisted(int rows, long ledgerSize, long ledgerModified) {
+        if (directory == null || incomplete) return null;
+
+        long codes = codesEnd;
+        int symbolCount = savedSymbols;
+        // The buffers themselves never move, but the arrays holding them are replaced as they grow
+        ByteBuffer[] newChunks = rows > forcedRows
+                ? Arrays.copyOfRange(chunks, forcedRows >>> CHUNK_SHIFT, ((rows - 1) >>> CHUNK_SHIFT) + 1)
+                : new ByteBuffer[0];
+        ByteBuffer[] newSegments = codes > forcedCodes
+                ? Arrays.copyOfRange(segments, (int) (forcedCodes >>> SEGMENT_SHIFT), (int) (codes >>> SEGMENT_SHIFT) + 1)
+                : new ByteBuffer[0];
+
+        return () -> {
+            try {
+                for (ByteBuffer c : newChunks) force(c);
+                for (ByteBuffer s : newSegments) force(s);
+                try (FileChannel ch = FileChannel.open(file(directory, "symbols").toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    ch.force(true);
+                }
+
+                File tmp = file(directory, "header.tmp");
+                try (FileOutputStream fos = new FileOutputStream(tmp);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(rows);
+                    out.writeLong(codes);
+                    out.writeInt(symbolCount);
+                    out.writeLong(ledgerSize);
+                    out.writeLong(ledgerModified);
+                    out.flush();
+                    fos.getFD().sync();
+                }
+                Files.move(tmp.toPath(), file(directory, "header").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                forcedRows = rows;
+                forcedCodes = codes;
+            } catch (IOException e) {
+                // The ledger is already safe; the next start just rebuilds the store from it
+                System.out.println("⚠️ Failed to save " + DIRECTORY + ": " + e.getMessage());
+            }
+        };
+    }
+
+    private long putCode(String code) {
+        if (code == null) return -1;
+
+        byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+        int need = 4 + bytes.length;
+        if (need > SEGMENT_BYTES) throw new IllegalArgumentException("Expenditure code too long: " + bytes.length + " bytes");
+
+        int s = (int) (codesEnd >>> SEGMENT_SHIFT);
+        int offset = (int) (codesEnd & (SEGMENT_BYTES - 1));
+        if (offset + need > SEGMENT_BYTES) {
+            s++;
+            offset = 0;
+        }
+        ByteBuffer segment = segment(s);
+        segment.putInt(offset, bytes.length);
+        segment.put(offset + 4, bytes);
+
+        long ref = ((long) s << SEGMENT_SHIFT) | offset;
+        codesEnd = ref + need;
+        return ref;
+    }
+
+    private ByteBuffer chunk(int c) {
+        if (c == chunks.length) chunks = Arrays.copyOf(chunks, c * 2);
+        if (chunks[c] == null) chunks[c] = allocate("rows", (long) c * CHUNK_BYTES, CHUNK_BYTES);
+        return chunks[c];
+    }
+
+    private ByteBuffer segment(int s) {
+        if (s == segments.length) segments = Arrays.copyOf(segments, s * 2);
+        if (segments[s] == null) segments[s] = allocate("codes", (long) s * SEGMENT_BYTES, SEGMENT_BYTES);
+        return segments[s];
+    }
+
+    // A direct buffer, or the region of the named file mapped read-write (which grows the file to fit)
+    private ByteBuffer allocate(String name, long position, int bytes) {
+        if (directory == null) return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (FileChannel ch = FileChannel.open(file(directory, name).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return ch.map(FileChannel.MapMode.READ_WRITE, position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void force(ByteBuffer buffer) {
+        if (buffer instanceof MappedByteBuffer mapped) mapped.force();
+    }
+
+    private static File file(File directory, String name) {
+        return new File(directory, name);
+    }
+}
@@ -7,7 +7,7 @@ import java.io.IOException;
 import java.util.Scanner;
 
 public class receipt {
-    static class Receipt {
+    public static class Receipt {
         String expenditureCode;
         String fileName;
         String uploader;
@@ -20,6 +20,22 @@ public class receipt {
             this.status = "Pending";
         }
 
+        public String expenditureCode() {
+            return expenditureCode;
+        }
+
+        public String fileName() {
+            return fileName;
+        }
+
+        public String uploader() {
+            return uploader;
+        }
+
+        public String status() {
+            return status;
+        }
+
         @Override
         public String toString() {
             return "Expenditure: " + expenditureCode + "\nReceipt: " + fileName + "\nUploader: " + uploader + "\nStatus: " + status;
@@ -29,7 +45,7 @@ public class receipt {
     static stack<Receipt> uploadQueue = new stack<>();
 
     public static void loadReceipt() {
-        Scanner s = new Scanner(System.in);
+        Scanner s = console.in;
         while (true) {
             System.out.println("\n📎 Receipt & Invoice Menu:");
             System.out.println("1. Upload Receipt");
@@ -68,22 +84,18 @@ public class receipt {
         System.out.print("Enter Uploader Name: ");
         String uploader = s.nextLine().trim();
 
-        Receipt r = new Receipt(code, file, uploader);
-        uploadQueue.push(r);
-        saveReceiptToFile(r);
+        expenditureService.uploadReceipt(code, file, uploader);
 
         System.out.println("✅ Receipt uploaded and added to queue.");
     }
 
     private static void reviewReceipt() {
-        if (uploadQueue.isEmpty()) {
+        Receipt r = expenditureService.reviewNextReceipt();
+        if (r == null) {
             System.out.println("📭 No receipts to review.");
             return;
         }
 
-        Receipt r = uploadQueue.pop();
-        r.status = "Reviewed";
-
         System.out.println("\n🧾 Reviewing Receipt:");
         System.out.println(r);
     }
@@ -93,7 +105,7 @@ public class receipt {
         uploadQueue.printStack();
     }
 
-    private static void saveReceiptToFile(Receipt r) {
+    static void saveReceiptToFile(Receipt r) {
         try (FileWriter fw = new FileWriter("Menu/receipts.txt", true)) {
             fw.write(r.toString() + "\n---\n");
         } catch (IOException e) {
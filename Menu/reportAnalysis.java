@@ -1,16 +1,14 @@
 package Menu;
 
-import DSA.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import DSA.arrayList;
+
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
 public class reportAnalysis {
     public static void report() {
-        Scanner s = new Scanner(System.in);
+        Scanner s = console.in;
         String choice;
 
         while (true) {
@@ -19,7 +17,10 @@ public class reportAnalysis {
             1. Monthly burn‑rate
             2. Profitability forecast
             3. Material/Category price impact
-            4. Exit to Main Menu\n: """);
+            4. Burn‑rate for a date range (day/week/month)
+            5. Phase breakdown
+            6. Account breakdown
+            7. Exit to Main Menu\n: """);
 
             choice = s.nextLine().trim();
 
@@ -27,7 +28,10 @@ public class reportAnalysis {
                 case "1" -> monthlyReport();
                 case "2" -> profitReport();
                 case "3" -> categoryPriceReport();
-                case "4" -> {
+                case "4" -> rangeReport(s);
+                case "5" -> phaseReport();
+                case "6" -> accountReport();
+                case "7" -> {
                     System.out.println("↩️ Returning to main menu...");
                     return;
                 }
@@ -37,59 +41,85 @@ public class reportAnalysis {
     }
 
     public static void monthlyReport() {
-        myTreeMap tree = new myTreeMap();
-
-        try (BufferedReader br = new BufferedReader(new FileReader("Menu/expenditures.txt"))) {
-            String line, code = null;
-            double amount = 0;
-            LocalDate date = null;
-
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("Code: ")) code = line.substring(6).trim();
-                else if (line.startsWith("Amount: ")) amount = Double.parseDouble(line.substring(8).trim());
-                else if (line.startsWith("Date: ")) date = LocalDate.parse(line.substring(6).trim());
-                else if (line.trim().isEmpty() && code != null && date != null) {
-                    YearMonth ym = YearMonth.from(date);
-                    tree.put(ym, amount);
-                    code = null; amount = 0; date = null;
-                }
-            }
+        System.out.println("\n📅 Monthly Burn-rate:");
+        expenditureService.monthlyTotals().printInOrder();
+    }
 
-            System.out.println("\n📅 Monthly Burn-rate:");
-            tree.printInOrder();
+    // Buckets spend by day, week (starting Monday) or month, then reports the buckets inside the window
+    public static void rangeReport(Scanner s) {
+        LocalDate start, end;
+        try {
+            System.out.print("Start Date (YYYY-MM-DD): ");
+            start = LocalDate.parse(s.nextLine().trim());
+            System.out.print("End Date (YYYY-MM-DD): ");
+            end = LocalDate.parse(s.nextLine().trim());
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Invalid date input.");
+            return;
+        }
 
-        } catch (IOException e) {
-            System.out.println("⚠️ Error reading file: " + e.getMessage());
+        System.out.print("Group by (day/week/month): ");
+        String unit = s.nextLine().trim().toLowerCase();
+        if (!unit.equals("day") && !unit.equals("week") && !unit.equals("month")) {
+            System.out.println("❌ Choose day, week or month.");
+            return;
         }
+        expenditureService.BucketUnit bucketUnit = expenditureService.BucketUnit.valueOf(unit.toUpperCase());
+
+        System.out.println("\n📅 Burn-rate by " + unit + " from " + start + " to " + end + ":");
+        expenditureService.burnRate(start, end, bucketUnit).printInOrder();
+        System.out.println("Total: GHS " + String.format("%.2f", expenditureService.totalSpend(start, end, bucketUnit)));
     }
 
+    // Projects each phase's spend for the next months and how long the account balances last at that rate
     public static void profitReport() {
-        System.out.println("💰 Profitability forecasting not yet implemented.");
-    }
+        arrayList<expenditureService.PhaseForecast> forecasts = expenditureService.forecast();
+        if (forecasts.size() == 0) {
+            System.out.println("⚠️ No expenditures recorded yet, nothing to forecast.");
+            return;
+        }
 
-    public static void categoryPriceReport() {
-        hashmap<String, Double> categoryTotals = new hashmap<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader("Menu/expenditures.txt"))) {
-            String line, category = null;
-            double amount = 0;
-
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("Category: ")) category = line.substring(10).trim();
-                else if (line.startsWith("Amount: ")) amount = Double.parseDouble(line.substring(8).trim());
-                else if (line.trim().isEmpty() && category != null) {
-                    Double currentTotal = categoryTotals.get(category);
-                    if (currentTotal == null) currentTotal = 0.0;
-                    categoryTotals.put(category, currentTotal + amount);
-                    category = null; amount = 0;
-                }
+        System.out.println("\n💰 Spend Forecast (moving average / smoothing / trend):");
+        double[] projected = new double[spendForecast.HORIZON];
+        for (int i = 0; i < forecasts.size(); i++) {
+            expenditureService.PhaseForecast f = forecasts.get(i);
+
+            System.out.println("\n🏗️ " + f.phase + " (" + f.closedMonths + " complete months, "
+                    + f.openMonth + " so far: GHS " + String.format("%.2f", f.openTotal) + ")");
+            for (int h = 0; h < spendForecast.HORIZON; h++) {
+                System.out.println(f.openMonth.plusMonths(h) + ": GHS "
+                        + String.format("%.2f / %.2f / %.2f", f.movingAverage[h], f.smoothing[h], f.trend[h])
+                        + "  → GHS " + String.format("%.2f", f.blended[h]));
+                projected[h] += f.blended[h];
             }
+        }
 
-            System.out.println("\n📊 Category Price Impact:");
-            categoryTotals.printAll();
+        double balance = expenditureService.totalBalance();
 
-        } catch (IOException e) {
-            System.out.println("⚠️ Error reading file: " + e.getMessage());
+        System.out.println("\n📈 Projected total spend:");
+        for (int h = 0; h < spendForecast.HORIZON; h++) {
+            System.out.println("Month +" + h + ": GHS " + String.format("%.2f", projected[h]));
+        }
+        System.out.println("🏦 Account balances: GHS " + String.format("%.2f", balance));
+        if (projected[0] <= 0) {
+            System.out.println("⏳ Runway: no spend projected.");
+        } else {
+            System.out.println("⏳ Runway: " + String.format("%.1f", balance / projected[0]) + " months at the projected rate");
         }
     }
+
+    public static void categoryPriceReport() {
+        System.out.println("\n📊 Category Price Impact:");
+        expenditureService.categoryTotals().printAll();
+    }
+
+    public static void phaseReport() {
+        System.out.println("\n🏗️ Spend by Phase:");
+        expenditureService.phaseTotals().printAll();
+    }
+
+    public static void accountReport() {
+        System.out.println("\n🏦 Spend by Bank Account:");
+        expenditureService.accountTotals().printAll();
+    }
 }
@@ -0,0 +1,171 @@
+package Menu;
+
+import DSA.hashmap;
+import DSA.myTreeMap;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Per-phase spend forecast over the monthly burn-rate series. Each model keeps only running state
+// (sums for the trend line, smoothed level/trend, the last few months), so a new expenditure costs
+// O(1) to fold in. The latest month stays open until a later month shows up, then it is fed to the models.
+public class spendForecast {
+
+    // Months averaged by the moving-average model
+    static final int MOVING_AVERAGE_MONTHS = 3;
+    // Holt's linear smoothing weights for the level and the trend
+    static final double ALPHA = 0.5;
+    static final double BETA = 0.3;
+    // Months projected by the report, starting with the open one
+    static final int HORIZON = 3;
+    // A longer stretch without spend starts the series over instead of feeding in a run of zeros
+    static final int MAX_GAP_MONTHS = 12;
+
+    // null until the first report, and again after a change that can't be folded in
+    private static hashmap<String, Model> models;
+
+    public static class Model {
+        private YearMonth open;       // latest month, still accumulating
+        private double openTotal;
+
+        // Closed months only
+        private int n;
+        private double sumX, sumY, sumXY, sumXX;
+        private double level, trend;
+        private final double[] window = new double[MOVING_AVERAGE_MONTHS];
+
+        // Returns false when the month was already closed, i.e. the model has to be refitted
+        boolean observe(YearMonth month, double amount) {
+            if (open == null) {
+                open = month;
+                openTotal = amount;
+                return true;
+            }
+
+            int cmp = month.compareTo(open);
+            if (cmp < 0) return false;
+            if (cmp > 0) {
+                if (open.plusMonths(MAX_GAP_MONTHS).isBefore(month)) {
+                    reset();
+                } else {
+                    close(openTotal);
+                    // Months without any spend count as zero
+                    for (YearMonth m = open.plusMonths(1); m.isBefore(month); m = m.plusMonths(1)) close(0);
+                }
+                open = month;
+                openTotal = 0;
+            }
+            openTotal += amount;
+            return true;
+        }
+
+        private void reset() {
+            n = 0;
+            sumX = sumY = sumXY = sumXX = 0;
+            level = trend = 0;
+        }
+
+        private void close(double y) {
+            double x = n;
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+
+            if (n == 0) {
+                level = y;
+            } else {
+                double previous = level;
+                level = ALPHA * y + (1 - ALPHA) * (level + trend);
+                trend = BETA * (level - previous) + (1 - BETA) * trend;
+            }
+            window[n % MOVING_AVERAGE_MONTHS] = y;
+            n++;
+        }
+
+        public YearMonth openMonth() {
+            return open;
+        }
+
+        public double openTotal() {
+            return openTotal;
+        }
+
+        public int closedMonths() {
+            return n;
+        }
+
+        // Forecasts for h months after the last closed one (h = 1 is the open month)
+        public double movingAverage() {
+            if (n == 0) return openTotal;
+            int count = Math.min(n, MOVING_AVERAGE_MONTHS);
+            double total = 0;
+            for (int i = 0; i < count; i++) total += window[i];
+            return total / count;
+        }
+
+        public double smoothing(int h) {
+            if (n == 0) return openTotal;
+            return Math.max(0, level + h * trend);
+        }
+
+        public double linearTrend(int h) {
+            if (n == 0) return openTotal;
+            double slope = 0;
+            double denominator = n * sumXX - sumX * sumX;
+            if (n > 1 && denominator != 0) slope = (n * sumXY - sumX * sumY) / denominator;
+            double intercept = (sumY - slope * sumX) / n;
+            return Math.max(0, intercept + slope * (n - 1 + h));
+        }
+
+        // Mean of the three models, used for the projection and the runway
+        public double blended(int h) {
+            return (movingAverage() + smoothing(h) + linearTrend(h)) / 3;
+        }
+
+        // Turns a whole-month forecast for the open month (h = 1) into its projection as of today: the
+        // spend recorded so far plus the forecast for the share of the month still to come. So it is
+        // never below what was already spent, and a month that is over is projected at its spend.
+        public double openMonth(double forecast, LocalDate today) {
+            if (open == null) return forecast;
+            YearMonth current = YearMonth.from(today);
+            double remaining;
+            if (open.isBefore(current)) remaining = 0;
+            else if (open.isAfter(current)) remaining = 1;
+            else remaining = 1 - (double) today.getDayOfMonth() / open.lengthOfMonth();
+            return openTotal + forecast * remaining;
+        }
+    }
+
+    // Called by ledgerTotals for every expenditure folded into the totals
+    static void observe(String phase, YearMonth month, double amount) {
+        if (models == null) return; // fitted from the totals on the next report
+
+        Model model = models.get(phase);
+        if (model == null) {
+            model = new Model();
+            models.put(phase, model);
+        }
+        if (!model.observe(month, amount)) models = null; // back-dated entry
+    }
+
+    // The totals were recomputed; fit again from them when next asked
+    static void invalidate() {
+        models = null;
+    }
+
+    static hashmap<String, Model> models() {
+        // Read the series first: bringing the totals up to date may itself invalidate
+        hashmap<String, myTreeMap<YearMonth>> series = ledgerTotals.byPhaseMonth();
+        if (models == null) {
+            hashmap<String, Model> fitted = new hashmap<>();
+            for (hashmap.Node<String, myTreeMap<YearMonth>> phase : series) {
+                Model model = new Model();
+                phase.value.forEach(model::observe);
+                fitted.put(phase.key, model);
+            }
+            models = fitted;
+        }
+        return models;
+    }
+}
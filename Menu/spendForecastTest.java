@@ -0,0 +1,114 @@
+package Menu;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Checks for the spend forecast models and the open-month projection, with a fixed "today" so the
+// results don't depend on when it runs. Exits with status 1 if any check fails.
+//
+// Usage: java Menu.spendForecastTest
+public class spendForecastTest {
+
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("\n=== 🧪 SPEND FORECAST TESTS ===");
+
+        test("a steady series is projected flat", spendForecastTest::testSteady);
+        test("a partly spent month counts its spend so far", spendForecastTest::testPartialMonth);
+        test("a falling series never projects below the spend so far", spendForecastTest::testFallingToZero);
+        test("an open month that is already over is its spend", spendForecastTest::testMonthOver);
+        test("a first month with no history", spendForecastTest::testNoHistory);
+        test("a back-dated month asks for a refit", spendForecastTest::testBackDated);
+
+        System.out.println(failed == 0 ? "✅ All checks passed." : "❌ " + failed + " check(s) failed.");
+        if (failed > 0) System.exit(1);
+    }
+
+    private static void test(String name, Runnable check) {
+        try {
+            check.run();
+            System.out.println("✅ " + name);
+        } catch (RuntimeException e) {
+            failed++;
+            System.out.println("❌ " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) throw new IllegalStateException(what);
+    }
+
+    private static void near(double actual, double expected, String what) {
+        check(Math.abs(actual - expected) < 1e-6, what + ": " + actual + ", expected " + expected);
+    }
+
+    // One observation per month from start, the last one left open
+    private static spendForecast.Model series(YearMonth start, double... totals) {
+        spendForecast.Model model = new spendForecast.Model();
+        for (int i = 0; i < totals.length; i++) check(model.observe(start.plusMonths(i), totals[i]), "observe month " + i);
+        return model;
+    }
+
+    private static void testSteady() {
+        spendForecast.Model model = series(YearMonth.of(2025, 1), 1000, 1000, 1000, 1000, 1000);
+        check(model.closedMonths() == 4, "closed months: " + model.closedMonths());
+        for (int h = 1; h <= spendForecast.HORIZON; h++) near(model.blended(h), 1000, "blended(" + h + ")");
+
+        // Later months are the models' forecasts as they are
+        expenditureService.PhaseForecast f = new expenditureService.PhaseForecast("Sales", model, LocalDate.of(2025, 5, 1));
+        near(f.blended[1], 1000, "month +1");
+        near(f.blended[2], 1000, "month +2");
+    }
+
+    private static void testPartialMonth() {
+        // 10 days into a 31-day month, with 400 spent against a usual 1000
+        spendForecast.Model model = series(YearMonth.of(2025, 8), 1000, 1000, 1000, 1000, 400);
+        LocalDate today = LocalDate.of(2025, 12, 10);
+        expenditureService.PhaseForecast f = new expenditureService.PhaseForecast("Sales", model, today);
+
+        near(f.openTotal, 400, "open total");
+        near(f.blended[0], 400 + 1000 * 21.0 / 31, "open month");
+        near(f.movingAverage[0], 400 + 1000 * 21.0 / 31, "moving average, open month");
+        near(f.blended[0], (f.movingAverage[0] + f.smoothing[0] + f.trend[0]) / 3, "blended is the mean");
+
+        // On the last day the month is what was spent
+        f = new expenditureService.PhaseForecast("Sales", model, LocalDate.of(2025, 12, 31));
+        near(f.blended[0], 400, "open month on its last day");
+    }
+
+    private static void testFallingToZero() {
+        // The models project 0 for the next month, but 2489 is already spent in it
+        spendForecast.Model model = series(YearMonth.of(2025, 7), 5000, 3000, 1000, 0, 2489);
+        LocalDate today = LocalDate.of(2025, 11, 20);
+        check(model.linearTrend(1) == 0 && model.smoothing(1) == 0, "the models should project 0 here");
+
+        expenditureService.PhaseForecast f = new expenditureService.PhaseForecast("Sales", model, today);
+        check(f.blended[0] >= 2489, "open month projected at " + f.blended[0]);
+        check(f.trend[0] >= 2489 && f.smoothing[0] >= 2489 && f.movingAverage[0] >= 2489, "a model projected below the spend so far");
+    }
+
+    private static void testMonthOver() {
+        spendForecast.Model model = series(YearMonth.of(2025, 1), 1000, 1000, 1000, 300);
+        expenditureService.PhaseForecast f = new expenditureService.PhaseForecast("Sales", model, LocalDate.of(2025, 6, 15));
+        near(f.blended[0], 300, "open month already over");
+
+        // Entries dated ahead of today leave the whole month to come
+        f = new expenditureService.PhaseForecast("Sales", model, LocalDate.of(2025, 3, 15));
+        near(f.blended[0], 300 + 1000, "open month not started");
+    }
+
+    private static void testNoHistory() {
+        spendForecast.Model model = series(YearMonth.of(2025, 12), 600);
+        check(model.closedMonths() == 0, "closed months: " + model.closedMonths());
+        expenditureService.PhaseForecast f = new expenditureService.PhaseForecast("Sales", model, LocalDate.of(2025, 12, 16));
+        check(f.blended[0] >= 600, "first month projected at " + f.blended[0]);
+        near(f.blended[0], 600 + 600 * 15.0 / 31, "first month");
+    }
+
+    private static void testBackDated() {
+        spendForecast.Model model = series(YearMonth.of(2025, 1), 1000, 1000, 1000);
+        check(model.observe(YearMonth.of(2025, 3), 50), "spend in the open month is folded in");
+        check(!model.observe(YearMonth.of(2025, 2), 50), "spend in a closed month was folded in");
+    }
+}
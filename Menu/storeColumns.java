@@ -0,0 +1,100 @@
+package Menu;
+
+import java.util.Arrays;
+
+// Where expenditureStore keeps its rows: on the heap (Heap) or in direct memory (offHeapColumns).
+// Phase, category and account arrive as symbols ids, -1 for a missing field.
+abstract class storeColumns {
+
+    abstract int size();
+
+    abstract void add(String code, double amount, int epochDay, int phase, int category, int account);
+
+    abstract String code(int row);
+
+    abstract double amount(int row);
+
+    abstract int epochDay(int row);
+
+    abstract int phase(int row);
+
+    abstract int category(int row);
+
+    abstract int account(int row);
+
+    // The first rows rows now match the ledger file with this size and timestamp. Called under the
+    // store's lock; returns the slow part (forcing them to disk) for the caller to run after letting
+    // go of it, or null when there is nothing to save
+    Runnable persisted(int rows, long ledgerSize, long ledgerModified) {
+        return null;
+    }
+
+    static final class Heap extends storeColumns {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private String[] codes = new String[INITIAL_CAPACITY];
+        private double[] amounts = new double[INITIAL_CAPACITY];
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private int[] phases = new int[INITIAL_CAPACITY];
+        private int[] categories = new int[INITIAL_CAPACITY];
+        private int[] accounts = new int[INITIAL_CAPACITY];
+        private int size;
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        void add(String code, double amount, int epochDay, int phase, int category, int account) {
+            if (size == codes.length) grow();
+            codes[size] = code;
+            amounts[size] = amount;
+            epochDays[size] = epochDay;
+            phases[size] = phase;
+            categories[size] = category;
+            accounts[size] = account;
+            size++;
+        }
+
+        @Override
+        String code(int row) {
+            return codes[row];
+        }
+
+        @Override
+        double amount(int row) {
+            return amounts[row];
+        }
+
+        @Override
+        int epochDay(int row) {
+            return epochDays[row];
+        }
+
+        @Override
+        int phase(int row) {
+            return phases[row];
+        }
+
+        @Override
+        int category(int row) {
+            return categories[row];
+        }
+
+        @Override
+        int account(int row) {
+            return accounts[row];
+        }
+
+        private void grow() {
+            int capacity = codes.length * 2;
+            codes = Arrays.copyOf(codes, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            accounts = Arrays.copyOf(accounts, capacity);
+        }
+    }
+}
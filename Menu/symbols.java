@@ -0,0 +1,115 @@
+package Menu;
+
+import DSA.arrayList;
+import DSA.hashmap;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+// One int id per distinct phase, category and account string, shared by the store, the indexes, the
+// report totals and the ledger readers for the life of the program. Each spelling is also folded to
+// lower case once, the first time it is seen, into a case-insensitive group, so searching and grouping
+// compare ints instead of calling toLowerCase per row. Ids only ever grow; a reload keeps them.
+final class symbols {
+
+    private static final hashmap<String, Integer> ids = new hashmap<>();
+    private static final hashmap<String, Integer> groupIds = new hashmap<>();
+    // Indexed by id. Replaced, never shrunk, when they grow; a reader that got an id through the
+    // store's lock sees the slot for it.
+    private static volatile String[] names = new String[64];
+    private static volatile int[] groups = new int[64];
+    private static volatile int size = 0;
+
+    private symbols() {
+    }
+
+    // The id of the string, giving it one if it is new; -1 for null
+    static synchronized int id(String value) {
+        if (value == null) return -1;
+
+        Integer id = ids.get(value);
+        if (id != null) return id;
+
+        int next = size;
+        place(next, value);
+        return next;
+    }
+
+    // The id of a string already seen, or -1; unlike id() it never adds one, so queries can't grow the table
+    static synchronized int find(String value) {
+        if (value == null) return -1;
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    // The case-insensitive group of a string already seen, or -1
+    static synchronized int findGroup(String value) {
+        if (value == null) return -1;
+        Integer group = groupIds.get(value.toLowerCase());
+        return group == null ? -1 : group;
+    }
+
+    static String name(int id) {
+        return id == -1 ? null : names[id];
+    }
+
+    // Ids that differ only in case share a group; -1 stays -1
+    static int group(int id) {
+        return id == -1 ? -1 : groups[id];
+    }
+
+    // Ids run from 0 to this; a slot may be empty after restore()
+    static int size() {
+        return size;
+    }
+
+    // Position of every string in sorted order after folding, equal folded strings sharing one.
+    // Lets string sorts run on numbers.
+    static synchronized int[] ranks(UnaryOperator<String> fold) {
+        arrayList<Integer> order = new arrayList<>();
+        for (int id = 0; id < size; id++) if (names[id] != null) order.add(id);
+        order.sortByKey(id -> fold.apply(names[id]));
+
+        int[] rank = new int[size];
+        String previous = null;
+        int current = -1;
+        for (int i = 0; i < order.size(); i++) {
+            String key = fold.apply(names[order.get(i)]);
+            if (!key.equals(previous)) current++;
+            rank[order.get(i)] = current;
+            previous = key;
+        }
+        return rank;
+    }
+
+    // Puts a string back under the id an earlier run gave it. False when the id or the string
+    // is already taken by something else, in which case the caller must not reuse its saved ids.
+    static synchronized boolean restore(int id, String value) {
+        Integer current = ids.get(value);
+        if (current != null) return current == id;
+        if (id < size && names[id] != null) return false;
+
+        place(id, value);
+        return true;
+    }
+
+    private static void place(int id, String value) {
+        if (id >= names.length) {
+            int capacity = Math.max(names.length * 2, id + 1);
+            groups = Arrays.copyOf(groups, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+
+        String folded = value.toLowerCase();
+        Integer group = groupIds.get(folded);
+        if (group == null) {
+            group = groupIds.size();
+            groupIds.put(folded, group);
+        }
+
+        groups[id] = group;
+        names[id] = value;
+        ids.put(value, id);
+        size = Math.max(size, id + 1);
+    }
+}
@@ -1,23 +1,14 @@
 package Menu;
 
-import DSA.linkedList;
-import DSA.arrayList;
-import Menu.addExpenditure.Expenditure;
-
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.time.LocalDate;
 import java.util.Scanner;
 
 public class viewExpenditure {
 
-    private static final linkedList historyList = new linkedList();
-    private static final MyMap expenditureMap = new MyMap();
+    private static int loadedVersion = -1;
 
     public static void searchExpenditure() {
-        loadExpendituresFromFile(); // Load data from txt file
-
-        Scanner s = new Scanner(System.in);
+        Scanner s = console.in;
 
         while (true) {
             System.out.println("\n🔍 View/Search Expenditure Menu:");
@@ -26,6 +17,9 @@ public class viewExpenditure {
             System.out.println("3. Search by date range");
             System.out.println("4. Search by category");
             System.out.println("5. Search by bank account");
+            System.out.println("6. Sort by date");
+            System.out.println("7. Sort by amount");
+            System.out.println("8. Sort by bank account");
             System.out.println("0. Exit");
 
             System.out.print("Select option: ");
@@ -47,6 +41,15 @@ public class viewExpenditure {
                 case "5":
                     searchByAccount(s);
                     break;
+                case "6":
+                    sortByDate();
+                    break;
+                case "7":
+                    sortByAmount();
+                    break;
+                case "8":
+                    sortByAccount();
+                    break;
                 case "0":
                     System.out.println("📤 Returning to main menu...");
                     return;
@@ -56,77 +59,46 @@ public class viewExpenditure {
         }
     }
 
-    private static void loadExpendituresFromFile() {
-        try (BufferedReader reader = new BufferedReader(new FileReader("Menu/expenditures.txt"))) {
-            String line;
-            String code = null, category = null, account = null, phase = null;
-            double amount = 0;
-            LocalDate date = null;
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.startsWith("Code:")) {
-                    code = line.substring(5).trim();
-                } else if (line.startsWith("Amount:")) {
-                    amount = Double.parseDouble(line.substring(7).trim());
-                } else if (line.startsWith("Date:")) {
-                    date = LocalDate.parse(line.substring(5).trim());
-                } else if (line.startsWith("Phase:")) {
-                    phase = line.substring(6).trim();
-                } else if (line.startsWith("Category:")) {
-                    category = line.substring(9).trim();
-                } else if (line.startsWith("Account:")) {
-                    account = line.substring(8).trim();
-                    if (code != null) {
-                        Expenditure e = new Expenditure(code, amount, date, phase, category, account);
-                        expenditureMap.put(code, e);
-                        historyList.addLast(code);
-
-                        // reset for next entry
-                        code = category = account = phase = null;
-                        amount = 0;
-                        date = null;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Error reading file: " + e.getMessage());
+    // Rebuilds the shared map and history only when the ledger was reloaded from disk;
+    // additions made through addExpenditure are already indexed
+    static void ensureLoaded() {
+        expenditureStore records = ledger.records();
+        if (loadedVersion == ledger.version()) return;
+
+        addExpenditure.clearIndex();
+        for (int row = 0; row < records.size(); row++) {
+            addExpenditure.record(records, row);
         }
+        loadedVersion = ledger.version();
     }
 
-    private static void listChronological() {
+    static void listChronological() {
         System.out.println("\n📅 Expenditure in Chronological Order:");
-        for (String code : historyList.toArray()) {
-            Expenditure e = expenditureMap.get(code);
-            if (e != null) {
-                System.out.println(e + "\n------------------");
-            }
-        }
+        printAll(expenditureService.listed());
     }
 
-    private static void sortByCategory() {
-        String[] codes = historyList.toArray();
-        arrayList<String> sortedCodes = new arrayList<>();
+    static void sortByCategory() {
+        printSorted("📂 Sorted by Category:", expenditureService.sortedBy(expenditureService.SortKey.CATEGORY));
+    }
 
-        for (String code : codes) sortedCodes.add(code);
+    static void sortByDate() {
+        printSorted("📆 Sorted by Date:", expenditureService.sortedBy(expenditureService.SortKey.DATE));
+    }
 
-        for (int i = 0; i < sortedCodes.size() - 1; i++) {
-            for (int j = i + 1; j < sortedCodes.size(); j++) {
-                Expenditure e1 = expenditureMap.get(sortedCodes.get(i));
-                Expenditure e2 = expenditureMap.get(sortedCodes.get(j));
-                if (e1.category.compareToIgnoreCase(e2.category) > 0) {
-                    sortedCodes.swap(i, j);
-                }
-            }
-        }
+    static void sortByAmount() {
+        printSorted("💵 Sorted by Amount:", expenditureService.sortedBy(expenditureService.SortKey.AMOUNT));
+    }
 
-        System.out.println("\n📂 Sorted by Category:");
-        for (int i = 0; i < sortedCodes.size(); i++) {
-            System.out.println(expenditureMap.get(sortedCodes.get(i)) + "\n------------------");
-        }
+    static void sortByAccount() {
+        printSorted("🏦 Sorted by Bank Account:", expenditureService.sortedBy(expenditureService.SortKey.ACCOUNT));
+    }
+
+    private static void printSorted(String title, expenditureStore.Selection sorted) {
+        System.out.println("\n" + title);
+        printAll(sorted);
     }
 
-    private static void searchByDateRange(Scanner s) {
+    static void searchByDateRange(Scanner s) {
         try {
             System.out.print("Start Date (YYYY-MM-DD): ");
             LocalDate start = LocalDate.parse(s.nextLine().trim());
@@ -134,70 +106,25 @@ public class viewExpenditure {
             LocalDate end = LocalDate.parse(s.nextLine().trim());
 
             System.out.println("\n📆 Expenditures from " + start + " to " + end + ":");
-            for (String code : historyList.toArray()) {
-                Expenditure e = expenditureMap.get(code);
-                if (!e.date.isBefore(start) && !e.date.isAfter(end)) {
-                    System.out.println(e + "\n------------------");
-                }
-            }
+            printAll(expenditureService.inDateRange(start, end));
         } catch (Exception e) {
             System.out.println("❌ Invalid date input.");
         }
     }
 
-    private static void searchByCategory(Scanner s) {
+    static void searchByCategory(Scanner s) {
         System.out.print("Enter category: ");
-        String input = s.nextLine().trim().toLowerCase();
-        for (String code : historyList.toArray()) {
-            Expenditure e = expenditureMap.get(code);
-            if (e.category.toLowerCase().equals(input)) {
-                System.out.println(e + "\n------------------");
-            }
-        }
+        String input = s.nextLine();
+        printAll(expenditureService.inCategory(input));
     }
 
-    private static void searchByAccount(Scanner s) {
+    static void searchByAccount(Scanner s) {
         System.out.print("Enter account number: ");
-        String acc = s.nextLine().trim();
-        for (String code : historyList.toArray()) {
-            Expenditure e = expenditureMap.get(code);
-            if (e.accountId.equals(acc)) {
-                System.out.println(e + "\n------------------");
-            }
-        }
+        String acc = s.nextLine();
+        printAll(expenditureService.inAccount(acc));
     }
 
-    // -------- Custom HashMap implementation (minimal) --------
-    private static class MyMap {
-        private final arrayList<Entry> entries = new arrayList<>();
-
-        private static class Entry {
-            String key;
-            Expenditure value;
-
-            Entry(String key, Expenditure value) {
-                this.key = key;
-                this.value = value;
-            }
-        }
-
-        void put(String key, Expenditure value) {
-            for (int i = 0; i < entries.size(); i++) {
-                if (entries.get(i).key.equals(key)) {
-                    entries.get(i).value = value;
-                    return;
-                }
-            }
-            entries.add(new Entry(key, value));
-        }
-
-        Expenditure get(String key) {
-            for (int i = 0; i < entries.size(); i++) {
-                if (entries.get(i).key.equals(key)) {
-                    return entries.get(i).value;
-                }
-            }
-            return null;
-        }
+    private static void printAll(expenditureStore.Selection expenditures) {
+        expenditures.forEach(e -> System.out.println(e + "\n------------------"));
     }
 }
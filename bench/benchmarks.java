@@ -0,0 +1,24 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the DSA benchmarks with the GC profiler attached, so the output includes the allocation rate
+// (gc.alloc.rate.norm is bytes per operation) next to throughput and average time.
+// Usage: java bench.benchmarks [regex] [size,size,...]
+public class benchmarks {
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "bench\\..*")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("bench-results.json");
+        if (args.length > 1) options.param("size", args[1].split(","));
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,33 @@
+package bench;
+
+import java.util.Random;
+
+// Benchmark inputs, generated from a fixed seed so every run and every fork sees the same data
+final class data {
+    static final long SEED = 42;
+
+    private data() {
+    }
+
+    // 0 .. n-1 in random order
+    static Integer[] shuffledInts(int n) {
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) values[i] = i;
+        Random random = new Random(SEED);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+
+    // Distinct keys shaped like the category names the app stores
+    static String[] strings(int n) {
+        Integer[] order = shuffledInts(n);
+        String[] values = new String[n];
+        for (int i = 0; i < n; i++) values[i] = "Category" + order[i];
+        return values;
+    }
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import DSA.hashset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+// hashset against HashSet. Both resize, so sizes run to 10M like the other suites. hashset hashes a
+// case-folded copy of each string, which HashSet gets for free from String's cached hashCode.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class hashsetBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    private String[] values;
+    private hashset ours;
+    private HashSet<String> jdk;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = data.strings(size);
+        ours = new hashset();
+        jdk = new HashSet<>();
+        for (String v : values) {
+            ours.add(v);
+            jdk.add(v);
+        }
+    }
+
+    @Benchmark
+    public hashset hashsetAdd() {
+        hashset set = new hashset();
+        for (String v : values) set.add(v);
+        return set;
+    }
+
+    @Benchmark
+    public HashSet<String> jdkHashSetAdd() {
+        HashSet<String> set = new HashSet<>();
+        for (String v : values) set.add(v);
+        return set;
+    }
+
+    @Benchmark
+    public hashset hashsetAddAll() {
+        hashset set = new hashset();
+        set.addAll(ours);
+        return set;
+    }
+
+    @Benchmark
+    public HashSet<String> jdkHashSetAddAll() {
+        HashSet<String> set = new HashSet<>();
+        set.addAll(jdk);
+        return set;
+    }
+
+    @Benchmark
+    public boolean hashsetContains() {
+        if (++cursor == size) cursor = 0;
+        return ours.contains(values[cursor]);
+    }
+
+    @Benchmark
+    public boolean jdkHashSetContains() {
+        if (++cursor == size) cursor = 0;
+        return jdk.contains(values[cursor]);
+    }
+}
@@ -0,0 +1,126 @@
+package bench;
+
+import DSA.arrayList;
+import DSA.linkedList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+// arrayList and linkedList against ArrayList and LinkedList
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class listBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    private Integer[] values;
+    private String[] strings;
+    private arrayList<Integer> ours;
+    private ArrayList<Integer> jdk;
+    private linkedList oursLinked;
+    private LinkedList<String> jdkLinked;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = data.shuffledInts(size);
+        strings = data.strings(size);
+
+        ours = new arrayList<>();
+        jdk = new ArrayList<>();
+        oursLinked = new linkedList();
+        jdkLinked = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            ours.add(values[i]);
+            jdk.add(values[i]);
+            oursLinked.addLast(strings[i]);
+            jdkLinked.addLast(strings[i]);
+        }
+    }
+
+    @Benchmark
+    public arrayList<Integer> arrayListAdd() {
+        arrayList<Integer> list = new arrayList<>();
+        for (Integer v : values) list.add(v);
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> jdkArrayListAdd() {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (Integer v : values) list.add(v);
+        return list;
+    }
+
+    @Benchmark
+    public Integer arrayListGet() {
+        if (++cursor == size) cursor = 0;
+        return ours.get(cursor);
+    }
+
+    @Benchmark
+    public Integer jdkArrayListGet() {
+        if (++cursor == size) cursor = 0;
+        return jdk.get(cursor);
+    }
+
+    // The unsorted copy is made outside the measured region
+    @State(Scope.Thread)
+    public static class Unsorted {
+        arrayList<Integer> ours;
+        ArrayList<Integer> jdk;
+
+        @Setup(Level.Invocation)
+        public void copy(listBenchmark b) {
+            ours = new arrayList<>();
+            jdk = new ArrayList<>(b.size);
+            for (Integer v : b.values) {
+                ours.add(v);
+                jdk.add(v);
+            }
+        }
+    }
+
+    @Benchmark
+    public arrayList<Integer> arrayListSort(Unsorted u) {
+        u.ours.sort(Integer::compare);
+        return u.ours;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> jdkArrayListSort(Unsorted u) {
+        u.jdk.sort(Integer::compare);
+        return u.jdk;
+    }
+
+    @Benchmark
+    public linkedList linkedListAddLast() {
+        linkedList list = new linkedList();
+        for (String s : strings) list.addLast(s);
+        return list;
+    }
+
+    @Benchmark
+    public LinkedList<String> jdkLinkedListAddLast() {
+        LinkedList<String> list = new LinkedList<>();
+        for (String s : strings) list.addLast(s);
+        return list;
+    }
+
+    @Benchmark
+    public String[] linkedListToArray() {
+        return oursLinked.toArray();
+    }
+
+    @Benchmark
+    public Object[] jdkLinkedListToArray() {
+        return jdkLinked.toArray();
+    }
+}
@@ -0,0 +1,78 @@
+package bench;
+
+import DSA.hashmap;
+import DSA.longHashMap;
+import DSA.longIntMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Numeric ids looked up the old way, as Strings in hashmap, against longHashMap: once with the
+// String parsed by numericKey, as the app does, and once with the long already in hand. The String
+// lookups build their key per call, as the app has a fresh one from each parsed line or decoded
+// code; reusing one would let hashmap skip hashing and compare by identity.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class longMapBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private String[] ids;
+    private long[] numbers;
+    private hashmap<String, Integer> byString;
+    private longHashMap<Integer> byNumber;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] order = data.shuffledInts(size);
+        ids = new String[size];
+        numbers = new long[size];
+        byString = new hashmap<>();
+        byNumber = new longHashMap<>();
+        for (int i = 0; i < size; i++) {
+            // Shaped like the account ids in accounts.txt
+            numbers[i] = 1400000000000L + order[i];
+            ids[i] = Long.toString(numbers[i]);
+            byString.put(ids[i], i);
+            byNumber.put(numbers[i], i);
+        }
+    }
+
+    @Benchmark
+    public hashmap<String, Integer> hashmapPut() {
+        hashmap<String, Integer> map = new hashmap<>();
+        for (int i = 0; i < ids.length; i++) map.put(ids[i], i);
+        return map;
+    }
+
+    @Benchmark
+    public longIntMap longIntMapPut() {
+        longIntMap map = new longIntMap();
+        for (int i = 0; i < ids.length; i++) map.put(longHashMap.numericKey(ids[i]), i);
+        return map;
+    }
+
+    @Benchmark
+    public Integer hashmapGet() {
+        if (++cursor == size) cursor = 0;
+        return byString.get(Long.toString(numbers[cursor]));
+    }
+
+    @Benchmark
+    public Integer longHashMapGetParsed() {
+        if (++cursor == size) cursor = 0;
+        return byNumber.get(longHashMap.numericKey(Long.toString(numbers[cursor])));
+    }
+
+    @Benchmark
+    public Integer longHashMapGet() {
+        if (++cursor == size) cursor = 0;
+        return byNumber.get(numbers[cursor]);
+    }
+}
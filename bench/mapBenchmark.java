@@ -0,0 +1,77 @@
+package bench;
+
+import DSA.hashmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+// hashmap against HashMap, keyed by boxed ints so key construction stays out of the numbers
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class mapBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    private Integer[] keys;
+    private Integer[] missing;
+    private hashmap<Integer, Integer> ours;
+    private HashMap<Integer, Integer> jdk;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = data.shuffledInts(size);
+        missing = new Integer[size];
+        ours = new hashmap<>();
+        jdk = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            missing[i] = size + keys[i];
+            ours.put(keys[i], i);
+            jdk.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public hashmap<Integer, Integer> hashmapPut() {
+        hashmap<Integer, Integer> map = new hashmap<>();
+        for (int i = 0; i < keys.length; i++) map.put(keys[i], i);
+        return map;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> jdkHashMapPut() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) map.put(keys[i], i);
+        return map;
+    }
+
+    @Benchmark
+    public Integer hashmapGet() {
+        if (++cursor == size) cursor = 0;
+        return ours.get(keys[cursor]);
+    }
+
+    @Benchmark
+    public Integer jdkHashMapGet() {
+        if (++cursor == size) cursor = 0;
+        return jdk.get(keys[cursor]);
+    }
+
+    @Benchmark
+    public boolean hashmapMiss() {
+        if (++cursor == size) cursor = 0;
+        return ours.containsKey(missing[cursor]);
+    }
+
+    @Benchmark
+    public boolean jdkHashMapMiss() {
+        if (++cursor == size) cursor = 0;
+        return jdk.containsKey(missing[cursor]);
+    }
+}
@@ -0,0 +1,65 @@
+package bench;
+
+import DSA.priorityqueue;
+import DSA.stack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+// stack against ArrayDeque and priorityqueue against PriorityQueue: fill with n elements, then drain
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class queueBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    private Integer[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = data.shuffledInts(size);
+    }
+
+    @Benchmark
+    public int stackPushPop() {
+        stack<Integer> st = new stack<>();
+        for (Integer v : values) st.push(v);
+        int sum = 0;
+        while (!st.isEmpty()) sum += st.pop();
+        return sum;
+    }
+
+    @Benchmark
+    public int jdkArrayDequePushPop() {
+        ArrayDeque<Integer> st = new ArrayDeque<>();
+        for (Integer v : values) st.push(v);
+        int sum = 0;
+        while (!st.isEmpty()) sum += st.pop();
+        return sum;
+    }
+
+    @Benchmark
+    public int priorityqueueAddPoll() {
+        priorityqueue<Integer> pq = new priorityqueue<>();
+        for (Integer v : values) pq.add(v);
+        int sum = 0;
+        while (pq.size() > 0) sum += pq.poll();
+        return sum;
+    }
+
+    @Benchmark
+    public int jdkPriorityQueueAddPoll() {
+        PriorityQueue<Integer> pq = new PriorityQueue<>();
+        for (Integer v : values) pq.add(v);
+        int sum = 0;
+        while (!pq.isEmpty()) sum += pq.poll();
+        return sum;
+    }
+}
@@ -0,0 +1,79 @@
+package bench;
+
+import DSA.myTreeMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// myTreeMap against TreeMap used the same way: put() adds to a running total, and a range query
+// sums the values of 1% of the keys (subtree sums on one side, a subMap walk on the other)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class treeMapBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    private Integer[] keys;
+    private myTreeMap<Integer> ours;
+    private TreeMap<Integer, Double> jdk;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = data.shuffledInts(size);
+        ours = new myTreeMap<>();
+        jdk = new TreeMap<>();
+        for (Integer k : keys) {
+            ours.put(k, 1.0);
+            jdk.merge(k, 1.0, Double::sum);
+        }
+    }
+
+    @Benchmark
+    public myTreeMap<Integer> myTreeMapPut() {
+        myTreeMap<Integer> map = new myTreeMap<>();
+        for (Integer k : keys) map.put(k, 1.0);
+        return map;
+    }
+
+    @Benchmark
+    public TreeMap<Integer, Double> jdkTreeMapPut() {
+        TreeMap<Integer, Double> map = new TreeMap<>();
+        for (Integer k : keys) map.merge(k, 1.0, Double::sum);
+        return map;
+    }
+
+    @Benchmark
+    public Double myTreeMapGet() {
+        if (++cursor == size) cursor = 0;
+        return ours.get(keys[cursor]);
+    }
+
+    @Benchmark
+    public Double jdkTreeMapGet() {
+        if (++cursor == size) cursor = 0;
+        return jdk.get(keys[cursor]);
+    }
+
+    @Benchmark
+    public double myTreeMapRangeSum() {
+        if (++cursor == size) cursor = 0;
+        int from = keys[cursor];
+        return ours.sumRange(from, from + size / 100);
+    }
+
+    @Benchmark
+    public double jdkTreeMapRangeSum() {
+        if (++cursor == size) cursor = 0;
+        int from = keys[cursor];
+        double total = 0;
+        for (double v : jdk.subMap(from, true, from + size / 100, true).values()) total += v;
+        return total;
+    }
+}
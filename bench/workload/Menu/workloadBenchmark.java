@@ -0,0 +1,320 @@
+package Menu;
+
+import Menu.addExpenditure.Expenditure;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+// End-to-end timings on a generated ledger: load, every view/search, every report and inserts.
+// The menus run exactly as they do interactively, with their output discarded; the results are
+// printed as JSON so runs of different versions can be compared.
+//
+// Kept out of the app's sources: it is a separate source root (bench/workload) that compiles into
+// package Menu, next to the app, to reach its package-private parts.
+//
+// Usage (from an empty scratch directory, since the data files are written to ./Menu):
+//   javac -encoding UTF-8 -d out/workload DSA/*.java Menu/*.java bench/workload/Menu/*.java
+//   java -cp out/workload Menu.workloadBenchmark [--expenditures N] [--categories N] [--accounts N]
+//        [--days N] [--start YYYY-MM-DD] [--inserts N] [--threads N] [--iterations N] [--seed N]
+//        [--out file] [--overwrite]
+public class workloadBenchmark {
+
+    static final String[] PHASES = {"Construction", "Marketing", "Sales"};
+    static final String[] BANKS = {"Access bank", "CalBank", "Ecobank", "GCB", "Fidelity", "Stanbic"};
+
+    static class Config {
+        int expenditures = 100_000;
+        int categories = 50;
+        int accounts = 200;
+        int days = 3 * 365;
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        int inserts = 1000;
+        int threads = 32;
+        int iterations = 5;
+        long seed = 42;
+        String out;
+        boolean overwrite;
+    }
+
+    private static final StringBuilder results = new StringBuilder();
+    private static final PrintStream stdout = System.out;
+    private static final PrintStream discard = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws IOException {
+        Config c;
+        try {
+            c = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage());
+            return;
+        }
+
+        if (new File(ledger.TEXT_FILE_NAME).exists() && !c.overwrite) {
+            System.out.println("❌ " + ledger.TEXT_FILE_NAME + " already exists here; run from an empty directory or pass --overwrite.");
+            return;
+        }
+
+        generate(c);
+        run(c);
+
+        String json = toJson(c);
+        if (c.out == null) {
+            stdout.println(json);
+        } else {
+            Files.write(new File(c.out).toPath(), json.getBytes(StandardCharsets.UTF_8));
+            stdout.println("✅ Results written to " + c.out);
+        }
+    }
+
+    // Writes accounts.txt, category.txt and expenditures.txt in the formats the app itself writes
+    static void generate(Config c) throws IOException {
+        new File("Menu").mkdirs();
+        for (String stale : new String[]{ledgerTotals.FILE_NAME, accountJournal.FILE_NAME, binaryLedger.FILE_NAME}) {
+            Files.deleteIfExists(new File(stale).toPath());
+        }
+
+        Random random = new Random(c.seed);
+
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(bankAccount.FILE_NAME), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < c.accounts; i++) {
+                double balance = 1_000_000 + random.nextInt(9_000_000);
+                bw.write(accountId(i) + "," + BANKS[i % BANKS.length] + "," + balance);
+                bw.newLine();
+            }
+        }
+
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream("Menu/category.txt"), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < c.categories; i++) {
+                bw.write(category(i));
+                bw.newLine();
+            }
+        }
+
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(ledger.TEXT_FILE_NAME), StandardCharsets.UTF_8), 1 << 16)) {
+            for (int i = 0; i < c.expenditures; i++) {
+                bw.write(randomExpenditure(c, random, i).toString());
+                bw.write("\n\n");
+            }
+        }
+
+        if (ledger.BINARY) binaryLedger.convert(new File(ledger.TEXT_FILE_NAME), new File(binaryLedger.FILE_NAME));
+    }
+
+    static void run(Config c) {
+        LocalDate middle = c.start.plusDays(c.days / 2);
+        String dateRange = middle + "\n" + middle.plusDays(29) + "\n";
+        String someCategory = category(c.categories / 2);
+        String someAccount = accountId(c.accounts / 2);
+
+        System.setOut(discard);
+        try {
+            // First touch: parses the ledger, builds the index and computes the report totals from scratch
+            time("load.cold", 1, viewExpenditure::ensureLoaded);
+            time("reports.totals.cold", 1, reportAnalysis::monthlyReport);
+
+            time("load", c.iterations, () -> {
+                ledger.invalidate();
+                viewExpenditure.ensureLoaded();
+            });
+
+            time("view.list", c.iterations, viewExpenditure::listChronological);
+            time("view.sortByCategory", c.iterations, viewExpenditure::sortByCategory);
+            time("view.sortByDate", c.iterations, viewExpenditure::sortByDate);
+            time("view.sortByAmount", c.iterations, viewExpenditure::sortByAmount);
+            time("view.sortByAccount", c.iterations, viewExpenditure::sortByAccount);
+            time("search.dateRange", c.iterations, () -> viewExpenditure.searchByDateRange(new Scanner(dateRange)));
+            time("search.category", c.iterations, () -> viewExpenditure.searchByCategory(new Scanner(someCategory + "\n")));
+            time("search.account", c.iterations, () -> viewExpenditure.searchByAccount(new Scanner(someAccount + "\n")));
+
+            String range = c.start + "\n" + c.start.plusDays(c.days) + "\n";
+            time("report.monthly", c.iterations, reportAnalysis::monthlyReport);
+            time("report.forecast", c.iterations, reportAnalysis::profitReport);
+            time("report.category", c.iterations, reportAnalysis::categoryPriceReport);
+            time("report.rangeByWeek", c.iterations, () -> reportAnalysis.rangeReport(new Scanner(range + "week\n")));
+            time("report.phase", c.iterations, reportAnalysis::phaseReport);
+            time("report.account", c.iterations, reportAnalysis::accountReport);
+
+            Random random = new Random(c.seed + 1);
+            int[] next = {c.expenditures};
+            // As addExpenditure.spending does it: every entry is committed before the next one
+            throughput("insert.committed", c.inserts, () -> {
+                insert(c, random, next[0]++);
+                groupCommit.commit();
+            });
+            // As csvImport does it: entries share group commits
+            throughput("insert.grouped", c.inserts, () -> insert(c, random, next[0]++));
+            groupCommit.commit();
+            // As expenditureServer does it: many threads post at once, each waiting for the commit
+            // that covers its entry, so the debits run in parallel and the fsyncs are shared
+            int first = next[0];
+            throughput("insert.concurrent", c.threads, c.inserts, i -> {
+                Expenditure e = randomExpenditure(c, new Random(c.seed + first + i), first + i);
+                expenditureService.addExpenditure(e.code, e.amount, e.date, e.phase, e.category, e.accountId, true);
+            });
+            // The same without waiting for each commit, so the time spent blocked is on the state
+            // locks rather than on a shared fsync
+            int firstStaged = first + c.inserts;
+            throughput("insert.concurrentStaged", c.threads, c.inserts, i -> {
+                Expenditure e = randomExpenditure(c, new Random(c.seed + firstStaged + i), firstStaged + i);
+                expenditureService.stage(e.code, e.amount, e.date, e.phase, e.category, e.accountId, true);
+                groupCommit.commitIfDue();
+            });
+            groupCommit.commit();
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    private static void insert(Config c, Random random, int i) {
+        Expenditure e = randomExpenditure(c, random, i);
+        expenditureService.stage(e.code, e.amount, e.date, e.phase, e.category, e.accountId, true);
+    }
+
+    private static Expenditure randomExpenditure(Config c, Random random, int i) {
+        return new Expenditure(
+                String.valueOf(100_000 + i),
+                Math.round(random.nextDouble() * 1_000_000) / 100.0,
+                c.start.plusDays(random.nextInt(c.days)),
+                PHASES[random.nextInt(PHASES.length)],
+                category(random.nextInt(c.categories)),
+                accountId(random.nextInt(c.accounts))
+        );
+    }
+
+    private static String accountId(int i) {
+        return String.valueOf(1_400_000_000_000L + i * 7919L);
+    }
+
+    private static String category(int i) {
+        return "Material" + (i + 1);
+    }
+
+    // Runs the action the given number of times and records min/mean/max in milliseconds
+    private static void time(String name, int iterations, Runnable action) {
+        double min = Double.MAX_VALUE, max = 0, total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            action.run();
+            double millis = (System.nanoTime() - start) / 1e6;
+            min = Math.min(min, millis);
+            max = Math.max(max, millis);
+            total += millis;
+        }
+        result(name, String.format(Locale.ROOT,
+                "\"iterations\": %d, \"minMillis\": %.3f, \"meanMillis\": %.3f, \"maxMillis\": %.3f",
+                iterations, min, total / iterations, max));
+    }
+
+    private static void throughput(String name, int operations, Runnable action) {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) action.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        result(name, String.format(Locale.ROOT,
+                "\"operations\": %d, \"totalMillis\": %.3f, \"opsPerSecond\": %.1f",
+                operations, seconds * 1000, operations / seconds));
+    }
+
+    // Hands out the operations to the threads as they ask for them; action gets the operation's number.
+    // Also records how often and how long the threads were blocked on a monitor or parked on a lock
+    // (or waiting for a commit), summed over the threads, as a measure of contention.
+    private static void throughput(String name, int threads, int operations, IntConsumer action) {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        boolean contention = mx.isThreadContentionMonitoringSupported();
+        if (contention) mx.setThreadContentionMonitoringEnabled(true);
+        AtomicLong blockedCount = new AtomicLong(), blockedMillis = new AtomicLong();
+        AtomicLong waitedCount = new AtomicLong(), waitedMillis = new AtomicLong();
+
+        AtomicInteger next = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i; (i = next.getAndIncrement()) < operations; ) action.accept(i);
+                // Read by the thread itself, since a finished thread has no info left
+                ThreadInfo info = contention ? mx.getThreadInfo(Thread.currentThread().getId()) : null;
+                if (info == null) return;
+                blockedCount.addAndGet(info.getBlockedCount());
+                blockedMillis.addAndGet(info.getBlockedTime());
+                waitedCount.addAndGet(info.getWaitedCount());
+                waitedMillis.addAndGet(info.getWaitedTime());
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) worker.start();
+        try {
+            for (Thread worker : workers) worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        result(name, String.format(Locale.ROOT,
+                "\"threads\": %d, \"operations\": %d, \"totalMillis\": %.3f, \"opsPerSecond\": %.1f, "
+                        + "\"blockedCount\": %d, \"blockedMillis\": %d, \"waitedCount\": %d, \"waitedMillis\": %d",
+                threads, operations, seconds * 1000, operations / seconds,
+                blockedCount.get(), blockedMillis.get(), waitedCount.get(), waitedMillis.get()));
+    }
+
+    private static void result(String name, String fields) {
+        if (results.length() > 0) results.append(",\n");
+        results.append("    {\"name\": \"").append(name).append("\", ").append(fields).append('}');
+    }
+
+    private static String toJson(Config c) {
+        expenditureStore records = ledger.records();
+        return "{\n" +
+                "  \"java\": \"" + System.getProperty("java.version") + "\",\n" +
+                "  \"format\": \"" + (ledger.BINARY ? "binary" : "text") + "\",\n" +
+                "  \"config\": {\"expenditures\": " + c.expenditures + ", \"categories\": " + c.categories +
+                ", \"accounts\": " + c.accounts + ", \"days\": " + c.days + ", \"start\": \"" + c.start +
+                "\", \"inserts\": " + c.inserts + ", \"threads\": " + c.threads + ", \"iterations\": " + c.iterations + ", \"seed\": " + c.seed + "},\n" +
+                "  \"recordsAfterRun\": " + records.size() + ",\n" +
+                "  \"results\": [\n" + results + "\n  ]\n" +
+                "}";
+    }
+
+    private static Config parse(String[] args) {
+        Config c = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (flag.equals("--overwrite")) {
+                c.overwrite = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            String value = args[++i];
+
+            try {
+                switch (flag) {
+                    case "--expenditures" -> c.expenditures = Integer.parseInt(value);
+                    case "--categories" -> c.categories = Integer.parseInt(value);
+                    case "--accounts" -> c.accounts = Integer.parseInt(value);
+                    case "--days" -> c.days = Integer.parseInt(value);
+                    case "--start" -> c.start = LocalDate.parse(value);
+                    case "--inserts" -> c.inserts = Integer.parseInt(value);
+                    case "--threads" -> c.threads = Integer.parseInt(value);
+                    case "--iterations" -> c.iterations = Integer.parseInt(value);
+                    case "--seed" -> c.seed = Long.parseLong(value);
+                    case "--out" -> c.out = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + flag);
+                }
+            } catch (NumberFormatException | java.time.format.DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + flag + ": " + value);
+            }
+        }
+        if (c.categories < 1 || c.accounts < 1 || c.days < 1 || c.iterations < 1 || c.threads < 1)
+            throw new IllegalArgumentException("--categories, --accounts, --days, --iterations and --threads must be at least 1");
+        return c;
+    }
+}